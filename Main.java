@@ -1,195 +1,133 @@
 import java.text.DecimalFormat;
-import java.util.AbstractMap;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.HashMap;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import evaluation.BatchEvaluator;
+import evaluation.DeviationSweep;
+import evaluation.EvaluationEngine;
+import evaluation.EvaluationLog;
+import evaluation.EvaluationResult;
+import evaluation.EvaluationServer;
+import evaluation.GroupEvaluation;
+import evaluation.GroupResult;
+import evaluation.IndicatorHierarchy;
+import evaluation.LoadTest;
+import evaluation.LogIndex;
+import evaluation.OffHeapMatrix;
+import evaluation.PipelineMetrics;
+import evaluation.RankReversalAnalysis;
+import evaluation.Ranking;
+import evaluation.Scenario;
+import evaluation.ScenarioSnapshot;
+import evaluation.SensitivityAnalysis;
+import evaluation.ShardCoordinator;
+import evaluation.ShardWorker;
+import evaluation.StreamingEvaluator;
+import evaluation.WeightPlan;
+import evaluation.WeightPlanCache;
 
 public class Main {
 
-    // 矩阵转置
-    private static double[][] transpose(double[][] matrix) {
-        int rows = matrix.length;
-        int cols = matrix[0].length;
-        double[][] result = new double[cols][rows];
-        for (int i = 0; i < cols; i++) {
-            for (int j = 0; j < rows; j++) {
-                result[i][j] = matrix[j][i];
-            }
-        }
-        return result;
-    }
-
-    private static double[][] normalizeData(double[][] data, int[] posInd, int[] negInd) {
-        int rows = data.length;
-        int cols = data[0].length;
-        double[][] normalized = new double[rows][cols];
-
-        // 处理正指标
-        for (int i : posInd) {
-            if (i >= rows) continue;
-            double[] col = data[i];
-            double min = Arrays.stream(col).min().getAsDouble();
-            double max = Arrays.stream(col).max().getAsDouble();
-            for (int j = 0; j < cols; j++)
-                normalized[i][j] = (max != min) ? (col[j]-min)/(max-min) : 1;
-        }
-
-        // 处理负指标
-        for (int i : negInd) {
-            if (i >= rows) continue;
-            double[] col = data[i];
-            double min = Arrays.stream(col).min().getAsDouble();
-            double max = Arrays.stream(col).max().getAsDouble();
-            for (int j = 0; j < cols; j++)
-                normalized[i][j] = (max != min) ? (max - col[j])/(max-min) : 1;
-        }
-        return normalized;
-    }
-
-    // 创建全值矩阵
-    private static double[][] createFullMatrix(int size, double value) {
-        double[][] matrix = new double[size][size];
+    // 打印矩阵
+    private static void printMatrix(double[][] matrix) {
         for (double[] row : matrix) {
-            Arrays.fill(row, value);
+            System.out.println(Arrays.toString(row));
         }
-        return matrix;
     }
 
-    // 转换为一致矩阵
-    private static double[][] toConsistentMatrix(double[][] matrix) {
-        int n = matrix.length;
-        double[] xi = new double[n];
-        for (int i = 0; i < n; i++) {
-            xi[i] = sum(matrix[i]);
-        }
+    // 格式化输出
+    private static void printRankedResults(double[] values) {
+        // 降序排列的下标，不装箱
+        int[] order = Ranking.sortDescending(values);
 
-        double[][] Q = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                Q[i][j] = (xi[i] - xi[j]) / (2 * n) + 0.5;
-            }
-        }
-        return Q;
-    }
+        // 格式化输出
+        System.out.println("\n=== 装备效能排行榜 ===");
+        DecimalFormat df = new DecimalFormat("0.0000");
 
-    // 计算排序向量
-    private static double[] rankingVector(double[][] F) {
-        int n = F.length;
-        double a = (n-1)/2.0;
-        double[] w = new double[n];
-        for (int i = 0; i < n; i++) {
-            double sum = sum(F[i]);
-            w[i] = 1.0/n - 1.0/(2*a) + sum/(n*a);
+        for (int i = 0; i < order.length; i++) {
+            System.out.printf("第%d名: 装备%-2d | 效能值: %s%n",
+                    i + 1,
+                    order[i] + 1, // 假设装备编号从1开始
+                    df.format(values[order[i]]));
         }
-        return w;
     }
 
-    // 计算偏离度矩阵
-    private static double[][] calculateDeviation(double[][] A, double alpha, double beta) {
-        int rows = A.length;
-        int cols = A[0].length;
-        double[] s_j = new double[cols];
-        Arrays.fill(s_j, 0.0);
-
-        // 计算列均值
-        for (int j = 0; j < cols; j++) {
-            for (int i = 0; i < rows; i++) {
-                s_j[j] += A[i][j];
-            }
-            s_j[j] /= rows;
-        }
-
-        // 计算偏离度
-        double[][] S = new double[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (A[i][j] <= s_j[j]) {
-                    S[i][j] = (alpha + s_j[j]) / (alpha + A[i][j]);
-                } else {
-                    S[i][j] = (beta + A[i][j]) / (beta + s_j[j]);
-                }
+    // 直接读写double[][]的表格模型：只在渲染可见单元格时取值，编辑时只写入被修改的单元格
+    private static class MatrixTableModel extends AbstractTableModel {
+        private double[][] matrix = new double[0][0];
+        private String[] columnNames;
+
+        // columnNames为null时列标题为"指标 n"
+        void setMatrix(double[][] matrix, String[] columnNames) {
+            boolean sameShape = matrix.length > 0 && this.matrix.length > 0
+                    && matrix[0].length == this.matrix[0].length
+                    && Arrays.equals(columnNames, this.columnNames);
+            this.matrix = matrix;
+            this.columnNames = columnNames;
+            if (sameShape) {
+                fireTableDataChanged();
+            } else {
+                fireTableStructureChanged();
             }
         }
-        return S;
-    }
 
-    // 行归一化
-    private static double[][] normalizeRows(double[][] matrix) {
-        double[][] result = new double[matrix.length][matrix[0].length];
-        for (int i = 0; i < matrix.length; i++) {
-            double sum = sum(matrix[i]);
-            for (int j = 0; j < matrix[i].length; j++) {
-                result[i][j] = matrix[i][j] / sum;
-            }
+        @Override
+        public int getRowCount() {
+            return matrix.length;
         }
-        return result;
-    }
 
-    // 计算效能值
-    private static double[] calculateEfficiencyValues(double[][] A, double[][] alpha) {
-        double[] results = new double[A.length];
-        for (int i = 0; i < A.length; i++) {
-            double sum = 0;
-            for (int j = 0; j < A[i].length; j++) {
-                sum += alpha[i][j] * A[i][j];
-            }
-            results[i] = sum;
+        @Override
+        public int getColumnCount() {
+            return matrix.length == 0 ? 0 : matrix[0].length;
         }
-        return results;
-    }
 
-    // 辅助函数：数组求和
-    private static double sum(double[] arr) {
-        double sum = 0;
-        for (double num : arr) {
-            sum += num;
+        @Override
+        public String getColumnName(int column) {
+            if (columnNames != null && column < columnNames.length) {
+                return (column + 1) + " " + columnNames[column];
+            }
+            return "指标 " + (column + 1);
         }
-        return sum;
-    }
 
-    // 打印矩阵
-    private static void printMatrix(double[][] matrix) {
-        for (double[] row : matrix) {
-            System.out.println(Arrays.toString(row));
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return Double.class;
         }
-    }
 
-    // 格式化输出
-    private static void printRankedResults(double[] values) {
-        // 创建索引-数值对
-        List<Map.Entry<Integer, Double>> entries = new ArrayList<>();
-        for (int i = 0; i < values.length; i++) {
-            entries.add(new AbstractMap.SimpleEntry<>(i + 1, values[i])); // 假设装备编号从1开始
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return true;
         }
 
-        // 降序排序
-        Collections.sort(entries, (a, b) -> Double.compare(b.getValue(), a.getValue()));
-
-        // 格式化输出
-        System.out.println("\n=== 装备效能排行榜 ===");
-        DecimalFormat df = new DecimalFormat("0.0000");
+        @Override
+        public Object getValueAt(int row, int column) {
+            return matrix[row][column];
+        }
 
-        for (int i = 0; i < entries.size(); i++) {
-            Map.Entry<Integer, Double> entry = entries.get(i);
-            System.out.printf("第%d名: 装备%-2d | 效能值: %s%n",
-                    i + 1,
-                    entry.getKey(),
-                    df.format(entry.getValue()));
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            // 清空单元格按0处理
+            double v = value instanceof Number ? ((Number) value).doubleValue() : 0;
+            if (Double.compare(matrix[row][column], v) != 0) {
+                matrix[row][column] = v;
+                fireTableCellUpdated(row, column);
+            }
         }
     }
 
@@ -198,12 +136,28 @@ public class Main {
         private HashMap<String, double[][]> matrices = new HashMap<>();
         private JComboBox<String> matrixSelector;
         private JTable matrixTable;
-        private DefaultTableModel tableModel;
-        private JSpinner rowSpinner, colSpinner;
-        private JButton applyDimensionButton, calculateButton;
+        private MatrixTableModel tableModel;
+        private JSpinner rowSpinner, colSpinner, alphaSpinner, betaSpinner;
+        private JButton applyDimensionButton, calculateButton, cancelButton, groupButton;
+        private JButton openScenarioButton, saveScenarioButton;
+        private JProgressBar progressBar;
+        private SwingWorker<String, Void> worker;
         private int numTechnologies = 3;
         private JTextArea resultsArea;
         private Font largeFont = new Font("Dialog", Font.PLAIN, 20);
+        private EvaluationEngine baseEngine = new EvaluationEngine();
+        private WeightPlanCache weightCache;
+        // 当前指标体系及其判断矩阵在matrices中的键（分组先序）；打开场景时整体替换
+        private IndicatorHierarchy hierarchy;
+        private String[] judgmentKeys;
+        // 当前指标体系是否由场景文件显式定义（否则为固定的两级体系）
+        private boolean customHierarchy;
+        private final EvaluationLog log = EvaluationLog.fromSystemProperties();
+
+        // 排行榜最多显示的名次数，技术数量很大时只做部分排序
+        private static final int DISPLAY_LIMIT = 1000;
+
+        private static final String DATA_KEY = "data (技术评价数据)";
 
         public MatrixEditor() {
             super("效能评估");
@@ -215,15 +169,15 @@ public class Main {
             setUIFont(largeFont);
 
             // 初始化矩阵
-            matrices.put("data (技术评价数据)", new double[3][34]);
-            matrices.put("R1 (一级指标判断矩阵)", createFullMatrix(7, 0.5));
-            matrices.put("R2 (二级指标判断矩阵1)", createFullMatrix(6, 0.5));
-            matrices.put("R3 (二级指标判断矩阵2)", createFullMatrix(3, 0.5));
-            matrices.put("R4 (二级指标判断矩阵3)", createFullMatrix(3, 0.5));
-            matrices.put("R5 (二级指标判断矩阵4)", createFullMatrix(7, 0.5));
-            matrices.put("R6 (二级指标判断矩阵5)", createFullMatrix(8, 0.5));
-            matrices.put("R7 (二级指标判断矩阵6)", createFullMatrix(4, 0.5));
-            matrices.put("R8 (二级指标判断矩阵7)", createFullMatrix(3, 0.5));
+            matrices.put(DATA_KEY, new double[3][34]);
+            matrices.put("R1 (一级指标判断矩阵)", EvaluationEngine.createFullMatrix(7, 0.5));
+            matrices.put("R2 (二级指标判断矩阵1)", EvaluationEngine.createFullMatrix(6, 0.5));
+            matrices.put("R3 (二级指标判断矩阵2)", EvaluationEngine.createFullMatrix(3, 0.5));
+            matrices.put("R4 (二级指标判断矩阵3)", EvaluationEngine.createFullMatrix(3, 0.5));
+            matrices.put("R5 (二级指标判断矩阵4)", EvaluationEngine.createFullMatrix(7, 0.5));
+            matrices.put("R6 (二级指标判断矩阵5)", EvaluationEngine.createFullMatrix(8, 0.5));
+            matrices.put("R7 (二级指标判断矩阵6)", EvaluationEngine.createFullMatrix(4, 0.5));
+            matrices.put("R8 (二级指标判断矩阵7)", EvaluationEngine.createFullMatrix(3, 0.5));
 
             // 设置示例数据
             double[][] data = {
@@ -231,7 +185,7 @@ public class Main {
                     {0,0,0,0,0,0.1,10,2,2,4,1,1,1,3,1,1,1,2,3,3,3,1,1,3,0,0,0,0,0,0,0,0,0,0},
                     {0,0,0.4,0,0,0,5,3,1,2,1,4,1,4,2,2,2,1,4,3,3,1,1,3,0,0,0,0,0,0,0,0,0,0}
             };
-            matrices.put("data (技术评价数据)", data);
+            matrices.put(DATA_KEY, data);
 
             // 设置R1示例数据
             double[][] R1 = {
@@ -264,6 +218,13 @@ public class Main {
             };
             matrices.put("R3 (二级指标判断矩阵2)", R3);
 
+            double[][][] judgments = new double[Scenario.JUDGMENT_NAMES.length][][];
+            for (int k = 0; k < judgments.length; k++) {
+                judgments[k] = matrices.get(judgmentKey(null, k));
+            }
+            setHierarchy(IndicatorHierarchy.twoLevel(judgments,
+                    EvaluationEngine.DEFAULT_POS_INDICATORS, EvaluationEngine.DEFAULT_NEG_INDICATORS));
+
             // 创建顶部控制面板
             JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
             controlPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -271,14 +232,14 @@ public class Main {
             JLabel selectLabel = new JLabel("选择矩阵:");
             selectLabel.setFont(largeFont);
 
-            matrixSelector = new JComboBox<>(matrices.keySet().toArray(new String[0]));
+            matrixSelector = new JComboBox<>(matrixKeys());
             matrixSelector.setFont(largeFont);
             matrixSelector.addActionListener(e -> updateTableForMatrix((String) matrixSelector.getSelectedItem()));
 
             JLabel rowLabel = new JLabel("行数:");
             rowLabel.setFont(largeFont);
 
-            rowSpinner = new JSpinner(new SpinnerNumberModel(3, 1, 50, 1));
+            rowSpinner = new JSpinner(new SpinnerNumberModel(3, 1, Integer.MAX_VALUE, 1));
             rowSpinner.setFont(largeFont);
             JComponent fieldEditor = rowSpinner.getEditor();
             if (fieldEditor instanceof JSpinner.DefaultEditor) {
@@ -288,13 +249,26 @@ public class Main {
             JLabel colLabel = new JLabel("列数:");
             colLabel.setFont(largeFont);
 
-            colSpinner = new JSpinner(new SpinnerNumberModel(34, 1, 50, 1));
+            colSpinner = new JSpinner(new SpinnerNumberModel(hierarchy.size(), 1, Integer.MAX_VALUE, 1));
             colSpinner.setFont(largeFont);
             fieldEditor = colSpinner.getEditor();
             if (fieldEditor instanceof JSpinner.DefaultEditor) {
                 ((JSpinner.DefaultEditor)fieldEditor).getTextField().setFont(largeFont);
             }
 
+            // 偏离度参数α、β
+            JLabel alphaLabel = new JLabel("α:");
+            alphaLabel.setFont(largeFont);
+            alphaSpinner = new JSpinner(new SpinnerNumberModel(EvaluationEngine.DEFAULT_ALPHA, 0.0, 10.0, 0.001));
+            alphaSpinner.setEditor(new JSpinner.NumberEditor(alphaSpinner, "0.####"));
+            ((JSpinner.DefaultEditor) alphaSpinner.getEditor()).getTextField().setFont(largeFont);
+
+            JLabel betaLabel = new JLabel("β:");
+            betaLabel.setFont(largeFont);
+            betaSpinner = new JSpinner(new SpinnerNumberModel(EvaluationEngine.DEFAULT_BETA, 0.0, 10.0, 0.001));
+            betaSpinner.setEditor(new JSpinner.NumberEditor(betaSpinner, "0.####"));
+            ((JSpinner.DefaultEditor) betaSpinner.getEditor()).getTextField().setFont(largeFont);
+
             applyDimensionButton = new JButton("设置待评价技术数量");
             applyDimensionButton.setFont(largeFont);
             applyDimensionButton.addActionListener(e -> resizeMatrix());
@@ -303,10 +277,35 @@ public class Main {
             saveButton.setFont(largeFont);
             saveButton.addActionListener(e -> saveCurrentMatrix());
 
+            openScenarioButton = new JButton("打开场景");
+            openScenarioButton.setFont(largeFont);
+            openScenarioButton.addActionListener(e -> openScenario());
+
+            saveScenarioButton = new JButton("保存场景");
+            saveScenarioButton.setFont(largeFont);
+            saveScenarioButton.addActionListener(e -> saveScenario());
+
             calculateButton = new JButton("计算最终效能值");
             calculateButton.setFont(largeFont);
             calculateButton.addActionListener(e -> calculateEfficiency());
 
+            cancelButton = new JButton("取消计算");
+            cancelButton.setFont(largeFont);
+            cancelButton.setEnabled(false);
+            cancelButton.addActionListener(e -> cancelCalculation());
+
+            groupButton = new JButton("专家组评估");
+            groupButton.setFont(largeFont);
+            groupButton.addActionListener(e -> evaluateGroup());
+
+            JButton metricsButton = new JButton("导出性能指标");
+            metricsButton.setFont(largeFont);
+            metricsButton.addActionListener(e -> exportMetrics());
+
+            progressBar = new JProgressBar(0, 100);
+            progressBar.setStringPainted(true);
+            progressBar.setVisible(false);
+
             controlPanel.add(selectLabel);
             controlPanel.add(matrixSelector);
             controlPanel.add(rowLabel);
@@ -314,11 +313,32 @@ public class Main {
             controlPanel.add(colLabel);
             controlPanel.add(colSpinner);
             controlPanel.add(applyDimensionButton);
+            controlPanel.add(alphaLabel);
+            controlPanel.add(alphaSpinner);
+            controlPanel.add(betaLabel);
+            controlPanel.add(betaSpinner);
             controlPanel.add(saveButton);
+            controlPanel.add(openScenarioButton);
+            controlPanel.add(saveScenarioButton);
             controlPanel.add(calculateButton);
+            controlPanel.add(cancelButton);
+            controlPanel.add(groupButton);
+            controlPanel.add(metricsButton);
+            controlPanel.add(progressBar);
             
             // 创建表格
-            tableModel = new DefaultTableModel();
+            tableModel = new MatrixTableModel();
+            tableModel.addTableModelListener(e -> {
+                // 单元格编辑直接写入矩阵，判断矩阵修改后立即使对应的组失效
+                if (e.getType() == TableModelEvent.UPDATE && e.getFirstRow() == e.getLastRow()
+                        && e.getColumn() != TableModelEvent.ALL_COLUMNS) {
+                    String matrixName = (String) matrixSelector.getSelectedItem();
+                    int k = judgmentIndex(matrixName);
+                    if (k >= 0) {
+                        weightCache.update(k, matrices.get(matrixName));
+                    }
+                }
+            });
             matrixTable = new JTable(tableModel);
             matrixTable.setFont(largeFont);
             matrixTable.setRowHeight(30);
@@ -371,29 +391,18 @@ public class Main {
             rowSpinner.setValue(rows);
             colSpinner.setValue(cols);
 
-            // 更新表格模型
-            tableModel.setRowCount(0);
-            tableModel.setColumnCount(0);
-
-            // 添加列标题
-            for (int i = 0; i < cols; i++) {
-                tableModel.addColumn("指标 " + (i+1));
-            }
-
-            // 添加行数据
-            for (int i = 0; i < rows; i++) {
-                Object[] rowData = new Object[cols];
-                for (int j = 0; j < cols; j++) {
-                    rowData[j] = matrix[i][j];
-                }
-                tableModel.addRow(rowData);
+            // 更新表格模型，表格直接显示矩阵本身，不复制数据
+            if (matrixTable.isEditing()) {
+                matrixTable.getCellEditor().cancelCellEditing();
             }
+            boolean isDataMatrix = matrixName.equals(DATA_KEY);
+            tableModel.setMatrix(matrix, isDataMatrix ? indicatorNames() : null);
 
-            // 如果是data矩阵，启用行列调整
-            boolean isDataMatrix = matrixName.startsWith("data");
-            rowSpinner.setEnabled(isDataMatrix);
-            colSpinner.setEnabled(false); // 列数固定为34
-            applyDimensionButton.setEnabled(isDataMatrix);
+            // 如果是data矩阵，启用行调整；列数由指标体系决定，通过打开场景更换指标体系
+            // 后台计算期间不能调整行数
+            rowSpinner.setEnabled(isDataMatrix && !isRunning());
+            colSpinner.setEnabled(false);
+            applyDimensionButton.setEnabled(isDataMatrix && !isRunning());
 
             // 如果是判断矩阵，确保是方阵
             if (!isDataMatrix) {
@@ -418,13 +427,15 @@ public class Main {
 
             // 复制数据
             for (int i = 0; i < Math.min(oldMatrix.length, newRows); i++) {
-                for (int j = 0; j < Math.min(oldMatrix[0].length, newCols); j++) {
-                    newMatrix[i][j] = oldMatrix[i][j];
-                }
+                newMatrix[i] = Arrays.copyOf(oldMatrix[i], newCols);
             }
 
             // 更新矩阵
             matrices.put(matrixName, newMatrix);
+            int k = judgmentIndex(matrixName);
+            if (k >= 0) {
+                weightCache.update(k, newMatrix);
+            }
 
             // 如果是data矩阵，更新技术数量
             if (matrixName.startsWith("data")) {
@@ -436,181 +447,426 @@ public class Main {
         }
 
         private void saveCurrentMatrix() {
-            // 保存当前显示的矩阵数据
+            // 编辑已逐格写入矩阵，这里只需提交正在编辑的单元格
             String currentMatrix = (String) matrixSelector.getSelectedItem();
-            double[][] matrix = matrices.get(currentMatrix);
-
-            for (int i = 0; i < matrix.length; i++) {
-                for (int j = 0; j < matrix[0].length; j++) {
-                    try {
-                        matrix[i][j] = Double.parseDouble(matrixTable.getValueAt(i, j).toString());
-                    } catch (Exception e) {
-                        matrix[i][j] = 0;
-                    }
-                }
+            if (matrixTable.isEditing()) {
+                matrixTable.getCellEditor().stopCellEditing();
             }
 
             resultsArea.setText("矩阵 " + currentMatrix + " 已保存！\n");
         }
 
+        // 打开场景快照（也接受文本场景文件），替换指标体系、全部矩阵、正负指标和偏离度参数
+        private void openScenario() {
+            JFileChooser chooser = new JFileChooser(".");
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+
+            Scenario scenario;
+            try {
+                scenario = Scenario.open(file);
+            } catch (IOException | RuntimeException e) {
+                resultsArea.setText("打开场景时出错: " + e.getMessage() + "\n");
+                return;
+            }
+            IndicatorHierarchy opened;
+            try {
+                opened = scenario.getHierarchy();
+            } catch (IllegalArgumentException e) {
+                resultsArea.setText("打开场景时出错: " + e.getMessage() + "\n");
+                return;
+            }
+            if (scenario.getData().length == 0 || scenario.getData()[0].length != opened.size()) {
+                resultsArea.setText("打开场景时出错: 技术评价数据应有" + opened.size() + "列，与指标体系的指标个数一致\n");
+                return;
+            }
+
+            customHierarchy = scenario.hasHierarchy();
+            matrices.clear();
+            matrices.put(DATA_KEY, scenario.getData());
+            setHierarchy(opened);
+            matrixSelector.setModel(new DefaultComboBoxModel<>(matrixKeys()));
+            numTechnologies = scenario.getData().length;
+            baseEngine = scenario.engine();
+            alphaSpinner.setValue(scenario.getAlpha());
+            betaSpinner.setValue(scenario.getBeta());
+
+            updateTableForMatrix((String) matrixSelector.getSelectedItem());
+            resultsArea.setText("已打开场景: " + file + "（" + numTechnologies + "项技术，" + opened.size()
+                    + "个指标，" + opened.groupCount() + "个判断矩阵）\n");
+        }
+
+        // 将当前全部矩阵、正负指标和偏离度参数保存为二进制快照
+        private void saveScenario() {
+            saveCurrentMatrix();
+            JFileChooser chooser = new JFileChooser(".");
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+
+            double[][][] judgments = currentJudgments();
+            double alpha = ((Number) alphaSpinner.getValue()).doubleValue();
+            double beta = ((Number) betaSpinner.getValue()).doubleValue();
+            Scenario scenario;
+            try {
+                scenario = customHierarchy
+                        ? new Scenario(matrices.get(DATA_KEY), hierarchy.withJudgments(judgments), alpha, beta)
+                        : new Scenario(matrices.get(DATA_KEY), judgments,
+                                baseEngine.posIndicators(), baseEngine.negIndicators(), alpha, beta);
+            } catch (IllegalArgumentException e) {
+                resultsArea.setText("保存场景时出错: " + e.getMessage() + "\n");
+                return;
+            }
+            try {
+                ScenarioSnapshot.write(scenario, file);
+                resultsArea.setText("场景已保存到文件: " + file + "\n");
+            } catch (IOException e) {
+                resultsArea.setText("保存场景时出错: " + e.getMessage() + "\n");
+            }
+        }
+
+        // 当前数据矩阵和指标体系下，用多位专家的判断矩阵文件做群组评估（界面上的判断矩阵不参与）
+        private void evaluateGroup() {
+            if (worker != null && !worker.isDone()) return;
+
+            saveCurrentMatrix();
+            JFileChooser chooser = new JFileChooser(".");
+            chooser.setMultiSelectionEnabled(true);
+            chooser.setDialogTitle("选择各专家的判断矩阵文件");
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            File[] files = chooser.getSelectedFiles();
+            if (files.length == 0) return;
+
+            // 拷贝矩阵快照，评估期间在界面上的修改不影响本次评估
+            double[][] data = copyMatrix(matrices.get(DATA_KEY));
+            double[][][] judgments = currentJudgments();
+            for (int k = 0; k < judgments.length; k++) {
+                judgments[k] = copyMatrix(judgments[k]);
+            }
+            IndicatorHierarchy structure = hierarchy.withJudgments(judgments);
+            EvaluationEngine engine = baseEngine.withDeviationParameters(
+                    ((Number) alphaSpinner.getValue()).doubleValue(),
+                    ((Number) betaSpinner.getValue()).doubleValue());
+            startWorker(new GroupWorker(engine, data, structure, files), "正在进行专家组评估...\n");
+        }
+
+        // 将进程启动以来的累计性能指标导出为JSON
+        private void exportMetrics() {
+            JFileChooser chooser = new JFileChooser(".");
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+            PipelineMetrics.Snapshot metrics = PipelineMetrics.snapshot();
+            try {
+                Files.write(file, metrics.toJson().getBytes(StandardCharsets.UTF_8));
+                resultsArea.setText("=== 累计性能指标 ===\n\n" + metrics.format() + "\n已导出到文件: " + file + "\n");
+            } catch (IOException e) {
+                resultsArea.setText("导出性能指标时出错: " + e.getMessage() + "\n");
+            }
+        }
+
         private void calculateEfficiency() {
+            if (worker != null && !worker.isDone()) return;
+
             // 先保存当前矩阵
             saveCurrentMatrix();
 
-            // 从矩阵集合中获取数据
-            double[][] data = matrices.get("data (技术评价数据)");
-            double[][] R1 = matrices.get("R1 (一级指标判断矩阵)");
-            double[][] R2 = matrices.get("R2 (二级指标判断矩阵1)");
-            double[][] R3 = matrices.get("R3 (二级指标判断矩阵2)");
-            double[][] R4 = matrices.get("R4 (二级指标判断矩阵3)");
-            double[][] R5 = matrices.get("R5 (二级指标判断矩阵4)");
-            double[][] R6 = matrices.get("R6 (二级指标判断矩阵5)");
-            double[][] R7 = matrices.get("R7 (二级指标判断矩阵6)");
-            double[][] R8 = matrices.get("R8 (二级指标判断矩阵7)");
-
-            // 在计算前显示所有矩阵的当前值
-            StringBuilder matrixInfo = new StringBuilder();
-
-            // 添加时间戳
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            String timestamp = dateFormat.format(new Date());
-            matrixInfo.append("=== 计算记录 [").append(timestamp).append("] ===\n\n");
-
-            // 显示data矩阵
-            matrixInfo.append("【技术评价数据矩阵】 (").append(data.length).append("×").append(data[0].length).append(")\n");
-            for (int i = 0; i < data.length; i++) {
-                matrixInfo.append("技术").append(i + 1).append(": ");
-                for (int j = 0; j < Math.min(data[i].length, 100); j++) { // 只显示前10个元素，避免过长
-                    matrixInfo.append(String.format("%.2f", data[i][j])).append(" ");
-                }
-                if (data[i].length > 100) matrixInfo.append("...");
-                matrixInfo.append("\n");
+            // 拷贝矩阵快照，计算期间在界面上的修改不影响本次计算
+            double[][] data = copyMatrix(matrices.get(DATA_KEY));
+            double[][][] judgments = currentJudgments();
+            for (int k = 0; k < judgments.length; k++) {
+                judgments[k] = copyMatrix(judgments[k]);
             }
-            matrixInfo.append("\n");
+            String hierarchyText = customHierarchy ? hierarchy.format(IndicatorHierarchy.matrixNames(judgments.length)) : null;
 
-            // 显示各判断矩阵
-            appendMatrixInfo(matrixInfo, "R1 (一级指标判断矩阵)", R1);
-            appendMatrixInfo(matrixInfo, "R2 (二级指标判断矩阵1)", R2);
-            appendMatrixInfo(matrixInfo, "R3 (二级指标判断矩阵2)", R3);
-            appendMatrixInfo(matrixInfo, "R4 (二级指标判断矩阵3)", R4);
-            appendMatrixInfo(matrixInfo, "R5 (二级指标判断矩阵4)", R5);
-            appendMatrixInfo(matrixInfo, "R6 (二级指标判断矩阵5)", R6);
-            appendMatrixInfo(matrixInfo, "R7 (二级指标判断矩阵6)", R7);
-            appendMatrixInfo(matrixInfo, "R8 (二级指标判断矩阵7)", R8);
+            // 综合权重也在事件线程中取得：之后界面上的编辑和打开场景只影响缓存，不影响本次计算。
+            // 推导出错时交给后台任务，与其他计算错误一样显示并写入日志
+            WeightPlan plan = null;
+            RuntimeException planError = null;
+            try {
+                plan = weightCache.plan();
+            } catch (RuntimeException e) {
+                planError = e;
+            }
 
-            matrixInfo.append("\n开始计算效能值...\n\n");
-            resultsArea.setText(matrixInfo.toString());
+            EvaluationEngine engine = baseEngine.withDeviationParameters(
+                    ((Number) alphaSpinner.getValue()).doubleValue(),
+                    ((Number) betaSpinner.getValue()).doubleValue());
+            startWorker(new EvaluationWorker(engine, data, judgments, hierarchyText, plan, planError),
+                    "正在计算效能值...\n");
+        }
 
-            // 创建结果字符串构建器
-            StringBuilder resultText = new StringBuilder();
+        private boolean isRunning() {
+            return worker != null && !worker.isDone();
+        }
+
+        // 后台任务运行期间禁用会替换或改变矩阵的操作（打开/保存场景、调整行数）
+        private void setEditingEnabled(boolean enabled) {
+            openScenarioButton.setEnabled(enabled);
+            saveScenarioButton.setEnabled(enabled);
+            boolean isDataMatrix = DATA_KEY.equals(matrixSelector.getSelectedItem());
+            rowSpinner.setEnabled(enabled && isDataMatrix);
+            applyDimensionButton.setEnabled(enabled && isDataMatrix);
+        }
+
+        // 启动后台任务：运行期间禁用计算按钮，允许取消
+        private void startWorker(SwingWorker<String, Void> task, String message) {
+            worker = task;
+            calculateButton.setEnabled(false);
+            groupButton.setEnabled(false);
+            cancelButton.setEnabled(true);
+            setEditingEnabled(false);
+            progressBar.setValue(0);
+            progressBar.setVisible(true);
+            resultsArea.setText(message);
+
+            worker.addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    progressBar.setValue((Integer) e.getNewValue());
+                }
+            });
+            worker.execute();
+        }
 
-            // 进行计算过程，和原始main方法一致
+        // 后台任务结束后在事件线程中恢复按钮并显示结果
+        private void finishWorker(SwingWorker<String, Void> task) {
+            calculateButton.setEnabled(true);
+            groupButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            setEditingEnabled(true);
+            progressBar.setVisible(false);
             try {
-                // 转置数据后进行归一化
-                int[] posIndicators = {0,1,2,3,4,5,8,19,20,23,26,27,28,29,30,31,32,33};
-                int[] negIndicators = {6,7,9,10,11,12,13,14,15,16,17,18,21,22,24,25};
-                double[][] dataTransposed = transpose(data);
-                double[][] normalizedData = normalizeData(dataTransposed, posIndicators, negIndicators);
-                double[][] A = transpose(normalizedData);
-
-                // 转换为一致矩阵
-                double[][] Q1 = toConsistentMatrix(R1);
-                double[][] Q2 = toConsistentMatrix(R2);
-                double[][] Q3 = toConsistentMatrix(R3);
-                double[][] Q4 = toConsistentMatrix(R4);
-                double[][] Q5 = toConsistentMatrix(R5);
-                double[][] Q6 = toConsistentMatrix(R6);
-                double[][] Q7 = toConsistentMatrix(R7);
-                double[][] Q8 = toConsistentMatrix(R8);
-
-                // 计算排序向量
-                double[] W1 = rankingVector(Q1);
-                double[] W2 = rankingVector(Q2);
-                double[] W3 = rankingVector(Q3);
-                double[] W4 = rankingVector(Q4);
-                double[] W5 = rankingVector(Q5);
-                double[] W6 = rankingVector(Q6);
-                double[] W7 = rankingVector(Q7);
-                double[] W8 = rankingVector(Q8);
-
-                // 组合综合权重
-                List<Double> resultList = new ArrayList<>();
-                double[][] matrices = {W2, W3, W4, W5, W6, W7, W8};
-                for (int i = 0; i < matrices.length; i++) {
-                    double weight = W1[i];
-                    for (double value : matrices[i]) {
-                        resultList.add(value * weight);
+                String text = task.isCancelled() ? null : task.get();
+                resultsArea.setText(text != null ? text : "计算已取消。\n");
+            } catch (InterruptedException | ExecutionException e) {
+                resultsArea.setText("\n计算过程中出错：" + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        private void cancelCalculation() {
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        }
+
+        // 判断矩阵在当前指标体系中的先序下标，data矩阵返回-1
+        private int judgmentIndex(String matrixName) {
+            for (int k = 0; k < judgmentKeys.length; k++) {
+                if (judgmentKeys[k].equals(matrixName)) return k;
+            }
+            return -1;
+        }
+
+        // 更换指标体系：判断矩阵按新的键放入matrices，并重建权重缓存
+        private void setHierarchy(IndicatorHierarchy newHierarchy) {
+            hierarchy = newHierarchy;
+            judgmentKeys = new String[newHierarchy.groupCount()];
+            double[][][] judgments = newHierarchy.judgments();
+            for (int k = 0; k < judgmentKeys.length; k++) {
+                judgmentKeys[k] = judgmentKey(newHierarchy, k);
+                matrices.put(judgmentKeys[k], judgments[k]);
+            }
+            weightCache = new WeightPlanCache(newHierarchy);
+        }
+
+        // 固定两级体系沿用R1..R8原来的名称，其他体系为"Rn (分组名称)"；日志检索按"【Rn "识别判断矩阵
+        private String judgmentKey(IndicatorHierarchy h, int k) {
+            if (h == null || (!customHierarchy && h.isTwoLevel())) {
+                return k == 0 ? "R1 (一级指标判断矩阵)" : "R" + (k + 1) + " (二级指标判断矩阵" + k + ")";
+            }
+            return "R" + (k + 1) + " (" + h.groupName(k) + ")";
+        }
+
+        private String[] matrixKeys() {
+            String[] keys = new String[judgmentKeys.length + 1];
+            keys[0] = DATA_KEY;
+            System.arraycopy(judgmentKeys, 0, keys, 1, judgmentKeys.length);
+            return keys;
+        }
+
+        private double[][][] currentJudgments() {
+            double[][][] judgments = new double[judgmentKeys.length][][];
+            for (int k = 0; k < judgmentKeys.length; k++) {
+                judgments[k] = matrices.get(judgmentKeys[k]);
+            }
+            return judgments;
+        }
+
+        // data矩阵的列标题，固定两级体系沿用"指标 n"
+        private String[] indicatorNames() {
+            if (!customHierarchy) return null;
+            String[] names = new String[hierarchy.size()];
+            for (int j = 0; j < names.length; j++) {
+                names[j] = hierarchy.indicatorName(j);
+            }
+            return names;
+        }
+
+        private static double[][] copyMatrix(double[][] matrix) {
+            double[][] copy = new double[matrix.length][];
+            for (int i = 0; i < matrix.length; i++) {
+                copy[i] = matrix[i].clone();
+            }
+            return copy;
+        }
+
+        // 后台计算任务：格式化矩阵、计算效能值并写日志，完成后在事件线程中更新结果区域
+        private class EvaluationWorker extends SwingWorker<String, Void> {
+            private final EvaluationEngine engine;
+            private final double[][] data;
+            private final double[][][] judgments;
+            private final String hierarchyText;
+            private final String[] keys = judgmentKeys;
+            // 点击时取得的综合权重方案，推导出错时为null，planError为其异常
+            private final WeightPlan plan;
+            private final RuntimeException planError;
+
+            EvaluationWorker(EvaluationEngine engine, double[][] data, double[][][] judgments, String hierarchyText,
+                             WeightPlan plan, RuntimeException planError) {
+                this.engine = engine;
+                this.data = data;
+                this.judgments = judgments;
+                this.hierarchyText = hierarchyText;
+                this.plan = plan;
+                this.planError = planError;
+            }
+
+            @Override
+            protected String doInBackground() {
+                PipelineMetrics.Snapshot before = PipelineMetrics.snapshot();
+
+                // 在计算前显示所有矩阵的当前值
+                PipelineMetrics.Timer formatTimer = PipelineMetrics.start(PipelineMetrics.Stage.FORMAT);
+                StringBuilder matrixInfo = new StringBuilder();
+
+                // 添加时间戳
+                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                String timestamp = dateFormat.format(new Date());
+                matrixInfo.append("=== 计算记录 [").append(timestamp).append("] ===\n\n");
+
+                // 显示data矩阵，行数按日志的输出方式截断
+                matrixInfo.append("【技术评价数据矩阵】 (").append(data.length).append("×").append(data[0].length).append(")\n");
+                int shown = log.dumpRows(data.length, true);
+                for (int i = 0; i < shown; i++) {
+                    if (isCancelled()) return null;
+                    matrixInfo.append("技术").append(i + 1).append(": ");
+                    // 按完整精度记录，重放时与本次计算的数据一致；超过100列时只记录前100列，避免过长
+                    for (int j = 0; j < Math.min(data[i].length, 100); j++) {
+                        matrixInfo.append(data[i][j]).append(" ");
                     }
+                    if (data[i].length > 100) matrixInfo.append("...");
+                    matrixInfo.append("\n");
+                    setProgress(20 * (i + 1) / shown);
                 }
-                double[] resultArray = new double[resultList.size()];
-                for (int i = 0; i < resultArray.length; i++) {
-                    resultArray[i] = resultList.get(i);
+                if (shown < data.length) {
+                    matrixInfo.append("...（共").append(data.length).append("行，仅记录前").append(shown).append("行）\n");
                 }
+                matrixInfo.append("\n");
 
-                // 计算偏离度矩阵
-                double alpha = 0.01;
-                double beta = 0.01;
-                double[][] Sij = calculateDeviation(A, alpha, beta);
-
-                // 扩展权重矩阵并进行元素相乘
-                double[][] resultMatrix = new double[data.length][34];
-                for (int i = 0; i < data.length; i++) {
-                    System.arraycopy(resultArray, 0, resultMatrix[i], 0, 34);
+                // 显示各判断矩阵
+                for (int k = 0; k < judgments.length; k++) {
+                    appendMatrixInfo(matrixInfo, keys[k], judgments[k]);
                 }
-                double[][] multiplied = new double[data.length][34];
-                for (int i = 0; i < data.length; i++) {
-                    for (int j = 0; j < 34; j++) {
-                        multiplied[i][j] = resultMatrix[i][j] * Sij[i][j];
-                    }
+                if (hierarchyText != null) {
+                    matrixInfo.append("【指标体系】\n").append(hierarchyText).append("\n");
                 }
 
-                // 归一化动态权值矩阵
-                double[][] alphaIj = normalizeRows(multiplied);
+                matrixInfo.append("偏离度参数: α=").append(engine.alpha())
+                        .append(", β=").append(engine.beta()).append("\n");
+                matrixInfo.append("\n开始计算效能值...\n\n");
+                formatTimer.stop(data.length);
+
+                // 创建结果字符串构建器
+                StringBuilder resultText = new StringBuilder();
+
+                // 进行计算过程，和原始main方法一致
+                try {
+                    if (plan == null) throw planError;
+                    EvaluationResult result = engine.evaluate(data, plan,
+                            percent -> setProgress(20 + percent * 7 / 10));
+
+                    // 在结果区域显示结果
+                    resultText.append("=== 装备效能排行榜 ===\n\n");
+                    resultText.append(result.formatRanking(0, DISPLAY_LIMIT));
+                    if (result.size() > DISPLAY_LIMIT) {
+                        resultText.append("...（共").append(result.size())
+                                .append("项，仅显示前").append(DISPLAY_LIMIT).append("名）\n");
+                    }
 
-                // 计算最终效能值
-                double[] Ui = calculateEfficiencyValues(A, alphaIj);
+                    // 将所有信息写入到文件
+                    String logContent = matrixInfo.toString() + resultText.toString() +
+                            "\n" + "=".repeat(50) + "\n\n";
+                    resultText.append(log.append(logContent));
 
-                // 在结果区域显示结果
-                resultText.append("=== 装备效能排行榜 ===\n\n");
+                } catch (CancellationException e) {
+                    return null;
+                } catch (Exception e) {
+                    String errorMsg = "\n计算过程中出错：" + e.getMessage() + "\n请检查矩阵数据是否正确。";
+                    resultText.append(errorMsg);
 
-                // 创建索引-数值对
-                List<Map.Entry<Integer, Double>> entries = new ArrayList<>();
-                for (int i = 0; i < Ui.length; i++) {
-                    entries.add(new AbstractMap.SimpleEntry<>(i + 1, Ui[i]));
-                }
+                    // 将错误信息也写入日志
+                    String logContent = matrixInfo.toString() + errorMsg +
+                            "\n" + "=".repeat(50) + "\n\n";
+                    resultText.append(log.append(logContent));
 
-                // 降序排序
-                Collections.sort(entries, (a, b) -> Double.compare(b.getValue(), a.getValue()));
-
-                // 格式化输出
-                DecimalFormat df = new DecimalFormat("0.0000");
-                for (int i = 0; i < entries.size(); i++) {
-                    Map.Entry<Integer, Double> entry = entries.get(i);
-                    String rankLine = String.format("第%d名: 装备%-2d | 效能值: %s\n",
-                            i + 1,
-                            entry.getKey(),
-                            df.format(entry.getValue()));
-                    resultText.append(rankLine);
+                    e.printStackTrace();
                 }
+                setProgress(100);
 
-                // 将结果追加到结果区域
-                resultsArea.setText(matrixInfo.toString() + resultText.toString());
+                // 性能指标只显示，不写入日志；日志在后台线程写入，其耗时计入之后的计算
+                resultText.append("\n=== 本次计算性能指标 ===\n\n")
+                        .append(PipelineMetrics.snapshot().since(before).format());
+                return matrixInfo.toString() + resultText.toString();
+            }
 
-                // 将所有信息写入到文件
-                String logContent = matrixInfo.toString() + resultText.toString() +
-                        "\n" + "=".repeat(50) + "\n\n";
-                writeToLogFile(logContent);
+            @Override
+            protected void done() {
+                finishWorker(this);
+            }
+        }
 
-            } catch (Exception e) {
-                String errorMsg = "\n计算过程中出错：" + e.getMessage() + "\n请检查矩阵数据是否正确。";
-                resultsArea.setText(matrixInfo + errorMsg);
+        // 后台群组评估任务：读取各专家的判断矩阵并评分，评分核在公共线程池中运行
+        private class GroupWorker extends SwingWorker<String, Void> {
+            private final EvaluationEngine engine;
+            private final double[][] data;
+            private final IndicatorHierarchy structure;
+            private final File[] files;
+
+            GroupWorker(EvaluationEngine engine, double[][] data, IndicatorHierarchy structure, File[] files) {
+                this.engine = engine;
+                this.data = data;
+                this.structure = structure;
+                this.files = files;
+            }
 
-                // 将错误信息也写入日志
-                String logContent = matrixInfo.toString() + errorMsg +
-                        "\n" + "=".repeat(50) + "\n\n";
-                writeToLogFile(logContent);
+            @Override
+            protected String doInBackground() {
+                String[] names = new String[files.length];
+                double[][][][] judgments = new double[files.length][][][];
+                try {
+                    for (int m = 0; m < files.length; m++) {
+                        if (isCancelled()) return null;
+                        names[m] = files[m].getName();
+                        judgments[m] = Scenario.readJudgments(files[m].toPath(), structure);
+                        setProgress(10 * (m + 1) / files.length);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    return "读取专家判断矩阵时出错: " + e.getMessage() + "\n";
+                }
+                try {
+                    GroupResult result = new GroupEvaluation(engine, ForkJoinPool.commonPool())
+                            .run(data, structure, names, judgments, null, GroupEvaluation.Aggregation.WEIGHTS,
+                                    percent -> setProgress(10 + percent * 9 / 10));
+                    return result.formatReport(DISPLAY_LIMIT);
+                } catch (CancellationException e) {
+                    return null;
+                } catch (RuntimeException e) {
+                    return "专家组评估时出错: " + e.getMessage() + "\n";
+                }
+            }
 
-                e.printStackTrace();
+            @Override
+            protected void done() {
+                finishWorker(this);
             }
         }
 
@@ -619,46 +875,76 @@ public class Main {
             sb.append("【").append(matrixName).append("】 (")
                     .append(matrix.length).append("×").append(matrix[0].length).append(")\n");
 
-            DecimalFormat df = new DecimalFormat("0.00");
-            for (int i = 0; i < matrix.length; i++) {
+            // 按完整精度记录，未填写的元素记为"?"
+            for (int i = 0; i < log.dumpRows(matrix.length, false); i++) {
                 for (int j = 0; j < matrix[i].length; j++) {
-                    sb.append(df.format(matrix[i][j])).append(" ");
+                    if (Double.isNaN(matrix[i][j])) {
+                        sb.append("? ");
+                    } else {
+                        sb.append(matrix[i][j]).append(" ");
+                    }
                 }
                 sb.append("\n");
             }
             sb.append("\n");
         }
-
-        // 将内容写入日志文件
-        private void writeToLogFile(String content) {
-            try {
-                // 创建日志文件目录（如果不存在）
-                File dir = new File("logs");
-                if (!dir.exists()) {
-                    dir.mkdir();
-                }
-
-                // 创建日志文件名（日期格式）
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                String fileName = "logs/效能评估记录_" + dateFormat.format(new Date()) + ".txt";
-
-                // 以追加模式写入文件
-                FileWriter fw = new FileWriter(fileName, true);
-                BufferedWriter bw = new BufferedWriter(fw);
-                bw.write(content);
-                bw.close();
-
-                // 在结果区域显示保存成功信息
-                resultsArea.append("\n计算记录已保存到文件: " + fileName);
-
-            } catch (IOException e) {
-                resultsArea.append("\n保存记录文件时出错: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
     }
 
     public static void main(String[] args) {
+        // 命令行批量模式，不启动界面
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchEvaluator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--stream")) {
+            StreamingEvaluator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--offheap")) {
+            OffHeapMatrix.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--shard")) {
+            ShardCoordinator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--shard-worker")) {
+            ShardWorker.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            DeviationSweep.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--snapshot")) {
+            ScenarioSnapshot.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--logs")) {
+            LogIndex.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--sensitivity")) {
+            SensitivityAnalysis.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--rank-reversal")) {
+            RankReversalAnalysis.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--group")) {
+            GroupEvaluation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            EvaluationServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--loadtest")) {
+            LoadTest.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // 启动GUI界面
         SwingUtilities.invokeLater(() -> new MatrixEditor());
     }
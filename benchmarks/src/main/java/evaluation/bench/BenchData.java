@@ -0,0 +1,69 @@
+package evaluation.bench;
+
+import evaluation.EvaluationEngine;
+
+import java.util.SplittableRandom;
+
+// 基准测试用的随机数据：固定种子，同一组参数每次生成相同的数据
+final class BenchData {
+
+    private BenchData() {
+    }
+
+    // rows个技术、cols个指标，取值[0, 10)
+    static double[][] data(int rows, int cols, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[][] data = new double[rows][cols];
+        for (double[] row : data) {
+            for (int j = 0; j < cols; j++) {
+                row[j] = rng.nextDouble(10);
+            }
+        }
+        return data;
+    }
+
+    // cols个指标按每组约size个分组：judgments[0]为一级判断矩阵，其余为各组的二级判断矩阵
+    // 组数和每组指标数都不少于2，一阶判断矩阵的排序向量没有定义
+    static double[][][] judgments(int cols, int size, long seed) {
+        int groups = Math.max(2, (cols + size - 1) / size);
+        if (cols < 2 * groups) {
+            throw new IllegalArgumentException("指标数(" + cols + ")不足以分成" + groups + "组");
+        }
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[][][] judgments = new double[groups + 1][][];
+        judgments[0] = judgment(groups, rng);
+        for (int g = 0; g < groups; g++) {
+            int n = cols / groups + (g < cols % groups ? 1 : 0);
+            judgments[g + 1] = judgment(n, rng);
+        }
+        return judgments;
+    }
+
+    // 互补判断矩阵：r_ii = 0.5，r_ij取[0.1, 0.9)，r_ji = 1 - r_ij
+    static double[][] judgment(int n, SplittableRandom rng) {
+        double[][] R = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            R[i][i] = 0.5;
+            for (int j = i + 1; j < n; j++) {
+                R[i][j] = rng.nextDouble(0.1, 0.9);
+                R[j][i] = 1 - R[i][j];
+            }
+        }
+        return R;
+    }
+
+    // 34个指标时使用默认正负指标，否则偶数列为正指标、奇数列为负指标
+    static int[][] polarity(int cols) {
+        if (cols == 34) {
+            return new int[][]{
+                    EvaluationEngine.DEFAULT_POS_INDICATORS,
+                    EvaluationEngine.DEFAULT_NEG_INDICATORS};
+        }
+        int[] pos = new int[(cols + 1) / 2];
+        int[] neg = new int[cols / 2];
+        for (int j = 0; j < cols; j++) {
+            if (j % 2 == 0) pos[j / 2] = j; else neg[j / 2] = j;
+        }
+        return new int[][]{pos, neg};
+    }
+}
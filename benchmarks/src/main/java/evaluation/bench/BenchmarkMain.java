@@ -0,0 +1,32 @@
+package evaluation.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+// benchmarks.jar的入口：参数与JMH命令行相同，始终附加GC分析器，报告每次调用的分配量（gc.alloc.rate.norm）
+//
+// 用法: java -jar target/benchmarks.jar [JMH参数] [基准名正则]
+//   java -jar target/benchmarks.jar PipelineBenchmark -p technologies=1000,100000
+//   java -jar target/benchmarks.jar -rf json -rff baseline.json
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        // 列表、帮助等不运行基准的命令交给JMH处理
+        if (Arrays.asList(args).contains("-h") || Arrays.asList(args).contains("-l")
+                || Arrays.asList(args).contains("-lp") || Arrays.asList(args).contains("-lprof")) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        CommandLineOptions cli = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
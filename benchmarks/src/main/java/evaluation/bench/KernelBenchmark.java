@@ -0,0 +1,98 @@
+package evaluation.bench;
+
+import evaluation.ColumnMatrix;
+import evaluation.ColumnStats;
+import evaluation.EvaluationEngine;
+import evaluation.FloatColumnMatrix;
+import evaluation.WeightPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 列统计量、归一化和评分核的标量实现与Vector API实现对比（backend参数，每种取值单独一个JVM）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+
+    @Param({"vector", "scalar"})
+    public String backend;
+
+    @Param({"1000", "100000", "1000000"})
+    public int technologies;
+
+    @Param({"34"})
+    public int indicators;
+
+    private int[] kinds;
+    private EvaluationEngine engine;
+    private WeightPlan plan;
+    private ColumnMatrix columns;
+    private ColumnMatrix normalized;
+    private ColumnStats stats;
+    private double[] sums;
+    private double[] scores;
+    private FloatColumnMatrix floats;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 必须在第一次用到ColumnKernels之前设置
+        System.setProperty("evaluation.vector", String.valueOf(backend.equals("vector")));
+        if (!EvaluationEngine.kernelBackend().startsWith(backend)) {
+            throw new IllegalStateException("实际使用的实现为 " + EvaluationEngine.kernelBackend());
+        }
+        int[][] polarity = BenchData.polarity(indicators);
+        kinds = ColumnStats.polarity(indicators, polarity[0], polarity[1]);
+        engine = new EvaluationEngine(polarity[0], polarity[1],
+                EvaluationEngine.DEFAULT_ALPHA, EvaluationEngine.DEFAULT_BETA);
+        plan = WeightPlan.of(BenchData.judgments(indicators, 7, 7));
+        columns = ColumnMatrix.fromRows(BenchData.data(technologies, indicators, 42));
+        normalized = new ColumnMatrix(technologies, indicators);
+        stats = new ColumnStats(indicators);
+        stats.accept(columns, 0, technologies);
+        sums = new double[indicators];
+        scores = new double[technologies];
+        floats = FloatColumnMatrix.of(columns);
+    }
+
+    // 一遍扫描得到各列最小值、最大值和累加和
+    @Benchmark
+    public ColumnStats columnStats() {
+        ColumnStats s = new ColumnStats(indicators);
+        s.accept(columns, 0, technologies);
+        return s;
+    }
+
+    // 按全局最小/最大值归一化并累加列和
+    @Benchmark
+    public double[] normalize() {
+        stats.normalize(columns, normalized, 0, technologies, kinds, sums);
+        return sums;
+    }
+
+    // 完整评分路径：归一化、列均值、偏离度与效能值
+    @Benchmark
+    public double[] score() {
+        return engine.score(columns, plan, scores);
+    }
+
+    // 完整评分路径，数据和归一化矩阵按float存储
+    @Benchmark
+    public double[] floatScore() {
+        return engine.score(floats, plan, scores);
+    }
+}
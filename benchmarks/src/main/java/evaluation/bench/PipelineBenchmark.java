@@ -0,0 +1,172 @@
+package evaluation.bench;
+
+import evaluation.ColumnMatrix;
+import evaluation.EvaluationEngine;
+import evaluation.EvaluationResult;
+import evaluation.OffHeapMatrix;
+import evaluation.Ranking;
+import evaluation.WeightPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 评估流程各阶段及完整计算路径的基准
+//
+// legacy*为界面最初的计算方式（按行存储，逐阶段分配新矩阵），其余为当前引擎的按列存储实现。
+// legacy*只支持不超过LEGACY_LIMIT个技术，超过时setUp不准备其输入，调用时抛出IllegalStateException。
+// 默认参数不含10000000：此时堆上的数据、按列副本和归一化矩阵各约2.7GB，另有两份同样大小的堆外副本
+// （共约13.5GB），需显式指定 -p technologies=10000000 -jvmArgsAppend -Xmx16g，并只选择非legacy*的基准。
+// offHeap*使用堆外的数据副本（直接缓冲区，上限默认同-Xmx，可用-XX:MaxDirectMemorySize调整）。
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    static final int LEGACY_LIMIT = 1_000_000;
+
+    @Param({"3", "1000", "100000"})
+    public int technologies;
+
+    @Param({"34"})
+    public int indicators;
+
+    // 二级判断矩阵的阶数（每组指标数）
+    @Param({"7"})
+    public int judgmentSize;
+
+    private double[][] data;
+    private double[][] dataTransposed;
+    private double[][][] judgments;
+    private int[] pos;
+    private int[] neg;
+    private EvaluationEngine engine;
+    private WeightPlan plan;
+
+    private ColumnMatrix columns;
+    private ColumnMatrix normalized;
+    private double[][] normalizedRows;
+    private double[] scores;
+    private OffHeapMatrix offHeap;
+    private OffHeapMatrix offHeapNormalized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchData.data(technologies, indicators, 42);
+        judgments = BenchData.judgments(indicators, judgmentSize, 7);
+        int[][] polarity = BenchData.polarity(indicators);
+        pos = polarity[0];
+        neg = polarity[1];
+        engine = new EvaluationEngine(pos, neg, EvaluationEngine.DEFAULT_ALPHA, EvaluationEngine.DEFAULT_BETA);
+        plan = WeightPlan.of(judgments);
+
+        columns = ColumnMatrix.fromRows(data);
+        normalized = EvaluationEngine.normalizeData(columns, new ColumnMatrix(technologies, indicators), pos, neg);
+        scores = engine.score(columns, plan, new double[technologies]);
+        offHeap = OffHeapMatrix.fromRows(data);
+        offHeapNormalized = OffHeapMatrix.allocate(technologies, indicators);
+        if (technologies <= LEGACY_LIMIT) {
+            dataTransposed = EvaluationEngine.transpose(data);
+            normalizedRows = normalized.toRows();
+        }
+    }
+
+    // 阶段：按指标最小-最大归一化（原实现，输入为转置后的数据）
+    @Benchmark
+    public double[][] legacyNormalize() {
+        requireLegacy();
+        return EvaluationEngine.normalizeData(dataTransposed, pos, neg);
+    }
+
+    // 阶段：按列存储的归一化，写入预先分配的矩阵
+    @Benchmark
+    public ColumnMatrix normalize() {
+        return EvaluationEngine.normalizeData(columns, normalized, pos, neg);
+    }
+
+    // 阶段：堆外矩阵的归一化，逐块经过堆上缓冲区
+    @Benchmark
+    public OffHeapMatrix offHeapNormalize() {
+        return EvaluationEngine.normalizeData(offHeap, offHeapNormalized, pos, neg);
+    }
+
+    // 阶段：偏离度矩阵（原实现）
+    @Benchmark
+    public double[][] legacyDeviation() {
+        requireLegacy();
+        return EvaluationEngine.calculateDeviation(normalizedRows, engine.alpha(), engine.beta());
+    }
+
+    // 阶段：按列存储的偏离度矩阵
+    @Benchmark
+    public ColumnMatrix deviation() {
+        return EvaluationEngine.calculateDeviation(normalized, engine.alpha(), engine.beta());
+    }
+
+    // 阶段：由判断矩阵推导综合权重
+    @Benchmark
+    public WeightPlan weights() {
+        return WeightPlan.of(judgments);
+    }
+
+    // 阶段：效能值降序排名
+    @Benchmark
+    public int[] ranking() {
+        return Ranking.sortDescending(scores);
+    }
+
+    // 完整计算路径：与界面最初的calculateEfficiency逐步一致
+    @Benchmark
+    public double[] legacyPath() {
+        requireLegacy();
+        double[][] A = EvaluationEngine.transpose(
+                EvaluationEngine.normalizeData(EvaluationEngine.transpose(data), pos, neg));
+        double[] w = EvaluationEngine.combinedWeights(judgments);
+        double[][] S = EvaluationEngine.calculateDeviation(A, engine.alpha(), engine.beta());
+        double[][] multiplied = new double[A.length][w.length];
+        for (int i = 0; i < A.length; i++) {
+            for (int j = 0; j < w.length; j++) {
+                multiplied[i][j] = w[j] * S[i][j];
+            }
+        }
+        return EvaluationEngine.calculateEfficiencyValues(A, EvaluationEngine.normalizeRows(multiplied));
+    }
+
+    // 完整计算路径：当前引擎，含行列转换和结果对象
+    @Benchmark
+    public EvaluationResult evaluate() {
+        return engine.evaluate(data, plan);
+    }
+
+    // 完整计算路径：数据已按列存储、结果写入调用方缓冲区
+    @Benchmark
+    public double[] score() {
+        return engine.score(columns, plan, scores);
+    }
+
+    // 完整计算路径：数据在堆外，逐块复制到堆上评分
+    @Benchmark
+    public double[] offHeapScore() {
+        return engine.score(offHeap, plan, scores);
+    }
+
+    private void requireLegacy() {
+        if (technologies > LEGACY_LIMIT) {
+            throw new IllegalStateException(
+                    "legacy*基准只支持不超过" + LEGACY_LIMIT + "个技术，当前为" + technologies);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package evaluation.bench;
+
+import evaluation.EvaluationEngine;
+import evaluation.SparseJudgment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 单个判断矩阵的权重推导：一致化（toConsistentMatrix）与排序向量（rankingVector），
+// 以及不构造Q、直接由行和推导的路径，按矩阵阶数参数化
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeightBenchmark {
+
+    @Param({"3", "7", "34", "128", "512", "2048"})
+    public int judgmentSize;
+
+    private double[][] R;
+    private double[][] Q;
+    private double[] xi;
+    private double[][] Qbuffer;
+    private double[] w;
+    private SparseJudgment sparse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        R = BenchData.judgment(judgmentSize, new SplittableRandom(7));
+        Q = EvaluationEngine.toConsistentMatrix(R);
+        xi = new double[judgmentSize];
+        Qbuffer = new double[judgmentSize][judgmentSize];
+        w = new double[judgmentSize];
+        sparse = SparseJudgment.fromMatrix(R);
+    }
+
+    @Benchmark
+    public double[][] toConsistentMatrix() {
+        return EvaluationEngine.toConsistentMatrix(R);
+    }
+
+    // 复用调用方缓冲区，不分配
+    @Benchmark
+    public double[][] toConsistentMatrixInto() {
+        return EvaluationEngine.toConsistentMatrix(R, xi, Qbuffer);
+    }
+
+    @Benchmark
+    public double[] rankingVector() {
+        return EvaluationEngine.rankingVector(Q);
+    }
+
+    @Benchmark
+    public double[] rankingVectorInto() {
+        return EvaluationEngine.rankingVector(Q, w);
+    }
+
+    // 行和 + 排序向量，O(n²)读取判断矩阵但不分配n×n的Q
+    @Benchmark
+    public double[] fromRowSums() {
+        return EvaluationEngine.rankingVectorFromRowSums(EvaluationEngine.rowSums(R, xi), w);
+    }
+
+    // 稀疏存储，时间与已填写元素个数成正比
+    @Benchmark
+    public double[] sparseWeights() {
+        return sparse.weights();
+    }
+}
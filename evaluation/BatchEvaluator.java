@@ -0,0 +1,178 @@
+package evaluation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// 命令行批量评估：不启动界面，逐个读取场景文件并输出效能值排名
+//
+// 用法: java Main --batch [--out 输出目录] [--parallel 并行度] [--alpha α] [--beta β] [--top K]
+//                  [--float32 | --check-float32] 场景文件或目录...
+// --alpha/--beta覆盖场景文件中的偏离度参数，--top只输出每个场景的前K名
+// --float32按float存储数据和归一化矩阵（内存减半），--check-float32不输出排名，而是对照float与double
+// 两条路径，输出效能值最大偏差和名次变化（见PrecisionReport）
+// 未指定输出目录时，结果以制表符分隔写到标准输出：文件 名次 装备编号 效能值
+public class BatchEvaluator {
+
+    public static void main(String[] args) {
+        Path outDir = null;
+        int parallelism = 1;
+        Double alpha = null;
+        Double beta = null;
+        int top = Integer.MAX_VALUE;
+        boolean float32 = false;
+        boolean checkFloat32 = false;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out") && i + 1 < args.length) {
+                outDir = Paths.get(args[++i]);
+            } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                parallelism = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--alpha") && i + 1 < args.length) {
+                alpha = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--beta") && i + 1 < args.length) {
+                beta = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--top") && i + 1 < args.length) {
+                top = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--float32")) {
+                float32 = true;
+            } else if (args[i].equals("--check-float32")) {
+                checkFloat32 = true;
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty() || (float32 && (checkFloat32 || parallelism > 1))) {
+            System.err.println("用法: java Main --batch [--out 输出目录] [--parallel 并行度] [--alpha α] [--beta β] [--top K]");
+            System.err.println("                       [--float32 | --check-float32] 场景文件或目录...");
+            System.err.println("--float32不能与--parallel同时使用");
+            System.exit(2);
+        }
+
+        Double alphaOverride = alpha;
+        Double betaOverride = beta;
+        Function<Scenario, EvaluationEngine> engineFor = s -> s.engine().withDeviationParameters(
+                alphaOverride != null ? alphaOverride : s.getAlpha(),
+                betaOverride != null ? betaOverride : s.getBeta());
+
+        int failed;
+        if (checkFloat32) {
+            failed = checkFloat32(inputs, engineFor, System.out, System.err);
+        } else if (float32) {
+            failed = run(inputs, outDir, s -> engineFor.apply(s).evaluate(FloatColumnMatrix.fromRows(s.getData()), s.plan()),
+                    top, System.out, System.err);
+        } else if (parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                failed = run(inputs, outDir, s -> new ParallelEvaluator(engineFor.apply(s), pool)
+                        .evaluate(s.getData(), s.plan()), top, System.out, System.err);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            failed = run(inputs, outDir, s -> engineFor.apply(s).evaluate(s.getData(), s.plan()),
+                    top, System.out, System.err);
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    // 返回处理失败的文件数
+    public static int run(List<Path> inputs, Path outDir, Function<Scenario, EvaluationResult> evaluator,
+                          int top, PrintStream out, PrintStream err) {
+        int failed = 0;
+        try {
+            if (outDir != null) {
+                Files.createDirectories(outDir);
+            }
+            for (Path file : expand(inputs)) {
+                try {
+                    EvaluationResult result = evaluator.apply(Scenario.open(file));
+                    if (outDir != null) {
+                        Path target = outDir.resolve(file.getFileName() + ".result.tsv");
+                        try (BufferedWriter w = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                            writeResult(w, file, result, top);
+                        }
+                    } else {
+                        StringBuilder sb = new StringBuilder();
+                        appendResult(sb, file, result, top);
+                        out.print(sb);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    err.println(file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            err.println("批量评估出错: " + e.getMessage());
+            failed++;
+        }
+        out.flush();
+        return failed;
+    }
+
+    // 逐个场景对照float与double两条路径，返回处理失败的文件数
+    static int checkFloat32(List<Path> inputs, Function<Scenario, EvaluationEngine> engineFor,
+                            PrintStream out, PrintStream err) {
+        int failed = 0;
+        try {
+            for (Path file : expand(inputs)) {
+                try {
+                    Scenario s = Scenario.open(file);
+                    PrecisionReport report = PrecisionReport.compare(engineFor.apply(s), s.getData(), s.plan());
+                    out.print(file + "\n" + report.formatReport());
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    err.println(file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            err.println("批量评估出错: " + e.getMessage());
+            failed++;
+        }
+        out.flush();
+        return failed;
+    }
+
+    // 将目录展开为其中的普通文件（按文件名排序）
+    static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path p : inputs) {
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.list(p)) {
+                    s.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    static void writeResult(Writer w, Path file, EvaluationResult result, int top) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        appendResult(sb, file, result, top);
+        w.write(sb.toString());
+    }
+
+    static void appendResult(StringBuilder sb, Path file, EvaluationResult result, int top) {
+        int[] ranking = top < result.size() ? result.topK(top) : result.getRanking();
+        for (int i = 0; i < ranking.length; i++) {
+            sb.append(file).append('\t')
+                    .append(i + 1).append('\t')
+                    .append(ranking[i] + 1).append('\t')
+                    .append(result.getScore(ranking[i])).append('\n');
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 二进制行文件读取
+//
+// 格式（小端序）：4字节魔数"EVRW"，int版本号，int列数，之后每行cols个double
+public class BinaryRowReader implements RowReader {
+    static final byte[] MAGIC = "EVRW".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = MAGIC.length + 8;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int cols;
+
+    public BinaryRowReader(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+            // 读满文件头
+        }
+        header.flip();
+        byte[] magic = new byte[MAGIC.length];
+        if (header.remaining() < HEADER_BYTES) {
+            channel.close();
+            throw new IOException(file + ": 文件头不完整");
+        }
+        header.get(magic);
+        int version = header.getInt();
+        cols = header.getInt();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION || cols <= 0) {
+            channel.close();
+            throw new IOException(file + ": 不是有效的二进制行文件");
+        }
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, cols * Double.BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean next(double[] row) throws IOException {
+        int rowBytes = cols * Double.BYTES;
+        if (buffer.remaining() < rowBytes) {
+            buffer.compact();
+            while (buffer.position() < rowBytes && channel.read(buffer) >= 0) {
+                // 至少读满一行
+            }
+            buffer.flip();
+            if (buffer.remaining() == 0) return false;
+            if (buffer.remaining() < rowBytes) {
+                throw new IOException(file + ": 文件末尾的行不完整");
+            }
+        }
+        for (int j = 0; j < cols; j++) {
+            row[j] = buffer.getDouble();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // 将任意行数据（如CSV）转换为二进制行文件，返回行数
+    public static long write(RowReader source, Path target) throws IOException {
+        int cols = source.cols();
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, HEADER_BYTES + cols * Double.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buf.put(MAGIC).putInt(VERSION).putInt(cols);
+            double[] row = new double[cols];
+            long rows = 0;
+            while (source.next(row)) {
+                if (buf.remaining() < cols * Double.BYTES) {
+                    drain(buf, out);
+                }
+                for (int j = 0; j < cols; j++) {
+                    buf.putDouble(row[j]);
+                }
+                rows++;
+            }
+            drain(buf, out);
+            return rows;
+        }
+    }
+
+    private static void drain(ByteBuffer buf, FileChannel out) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+}
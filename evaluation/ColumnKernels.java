@@ -0,0 +1,60 @@
+package evaluation;
+
+// 按列连续数据上的内层循环：列统计量、归一化和评分核
+//
+// 默认使用标量实现ScalarKernels。运行时加了 --add-modules jdk.incubator.vector 时改用
+// VectorKernels（Vector API），系统属性 evaluation.vector=false 可强制使用标量实现。
+// VectorKernels只通过反射加载，不带该模块编译或运行时自动退回标量实现。
+//
+// 两种实现的误差约定：逐元素的归一化、偏离度、动态权值和效能值累加与标量实现逐位相同；
+// 只有求和（列均值、列累加和）按SIMD通道分组累加，顺序不同。n个元素求和的相对误差不超过
+// n·2^-53，实测效能值相对偏差在1e-14量级，约定容差为相对1e-12。
+interface ColumnKernels {
+
+    ColumnKernels INSTANCE = load();
+
+    // 实现名称，用于日志和基准
+    String name();
+
+    // 在stats[0..2]（最小值、最大值、累加和）的基础上累积v[from..to)
+    void minMaxSum(double[] v, int from, int to, double[] stats);
+
+    double sum(double[] v, int from, int to);
+
+    // out[target+i] = (in[base+i]-lo)/(hi-lo)（正指标）或 (hi-in[base+i])/(hi-lo)（负指标），i < n；
+    // 要求hi != lo，返回写入值之和
+    double scale(double[] in, int base, double[] out, int target, int n, double lo, double hi, boolean positive);
+
+    // 一列的偏离度乘以综合权重：dynamic[d+k] = w·S(v[base+k])，并累加到sums[k]，k < n
+    void deviation(double[] v, int base, int n, double mean, double w, double alpha, double beta,
+                   double[] dynamic, int d, double[] sums);
+
+    // 一列对效能值的贡献：out[o+k] += dynamic[d+k] / sums[k] · v[base+k]，k < n
+    void accumulate(double[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n);
+
+    // 以下为float存储的版本（见FloatColumnMatrix）：元素读出后转为double计算，累加和都用double，
+    // 只有scale的结果按float写回
+    void minMaxSum(float[] v, int from, int to, double[] stats);
+
+    double sum(float[] v, int from, int to);
+
+    // 返回写入的float值（转回double后）之和
+    double scale(float[] in, int base, float[] out, int target, int n, double lo, double hi, boolean positive);
+
+    void deviation(float[] v, int base, int n, double mean, double w, double alpha, double beta,
+                   double[] dynamic, int d, double[] sums);
+
+    void accumulate(float[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n);
+
+    private static ColumnKernels load() {
+        if (Boolean.parseBoolean(System.getProperty("evaluation.vector", "true"))) {
+            try {
+                return (ColumnKernels) Class.forName("evaluation.VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 未编译或运行时未加入jdk.incubator.vector模块
+            }
+        }
+        return new ScalarKernels();
+    }
+}
@@ -0,0 +1,88 @@
+package evaluation;
+
+// 按列存储的矩阵：所有元素放在一个一维数组中，第j列占据[j*rows, (j+1)*rows)
+//
+// 每个指标的数据在内存中连续，归一化和列均值可直接按列扫描，不必先转置
+public final class ColumnMatrix {
+    private final int rows;
+    private final int cols;
+    private final double[] values;
+
+    public ColumnMatrix(int rows, int cols) {
+        this(rows, cols, new double[Math.multiplyExact(rows, cols)]);
+    }
+
+    // 直接包装按列存储的数组，不复制
+    public ColumnMatrix(int rows, int cols, double[] values) {
+        if (values.length < (long) rows * cols) {
+            throw new IllegalArgumentException("数组长度(" + values.length + ")小于" + rows + "×" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.values = values;
+    }
+
+    // 由按行存储的二维数组（每行一个技术）构造
+    public static ColumnMatrix fromRows(double[][] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.TRANSPOSE);
+        int rows = data.length;
+        int cols = data[0].length;
+        ColumnMatrix m = new ColumnMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            double[] row = data[i];
+            if (row.length != cols) {
+                throw new IllegalArgumentException("第" + (i + 1) + "行列数(" + row.length + ")与首行(" + cols + ")不一致");
+            }
+            for (int j = 0; j < cols; j++) {
+                m.values[j * rows + i] = row[j];
+            }
+        }
+        timer.stop(rows);
+        return m;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public double get(int i, int j) {
+        return values[j * rows + i];
+    }
+
+    public void set(int i, int j, double value) {
+        values[j * rows + i] = value;
+    }
+
+    // 第j列在底层数组中的起始下标
+    public int offset(int j) {
+        return j * rows;
+    }
+
+    // 底层数组，供计算核直接按列访问
+    public double[] array() {
+        return values;
+    }
+
+    public double[] row(int i) {
+        double[] row = new double[cols];
+        for (int j = 0; j < cols; j++) {
+            row[j] = values[j * rows + i];
+        }
+        return row;
+    }
+
+    public double[][] toRows() {
+        double[][] result = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            result[i] = row(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package evaluation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// 各指标（列）的最小值、最大值和累加和，可逐行累积，也可合并多个分片的部分结果
+//
+// 归一化只需要列最小/最大值，偏离度只需要归一化后的列均值，而后者可由原始列均值直接推出：
+// 正指标 (mean-min)/(max-min)，负指标 (max-mean)/(max-min)。因此一遍扫描即可得到全部全局量。
+public final class ColumnStats {
+    private final double[] min;
+    private final double[] max;
+    private final double[] sum;
+    private long count;
+
+    public ColumnStats(int cols) {
+        min = new double[cols];
+        max = new double[cols];
+        sum = new double[cols];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    public int cols() {
+        return sum.length;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min(int j) {
+        return min[j];
+    }
+
+    public double max(int j) {
+        return max[j];
+    }
+
+    public double sum(int j) {
+        return sum[j];
+    }
+
+    public double mean(int j) {
+        return sum[j] / count;
+    }
+
+    // 累积一行原始数据
+    public void accept(double[] row) {
+        for (int j = 0; j < sum.length; j++) {
+            double v = row[j];
+            min[j] = Math.min(min[j], v);
+            max[j] = Math.max(max[j], v);
+            sum[j] += v;
+        }
+        count++;
+    }
+
+    // 累积按列存储矩阵的第from..to-1行
+    public void accept(ColumnMatrix data, int from, int to) {
+        double[] v = data.array();
+        double[] stats = new double[3];
+        for (int j = 0; j < sum.length; j++) {
+            int base = data.offset(j);
+            stats[0] = min[j];
+            stats[1] = max[j];
+            stats[2] = sum[j];
+            ColumnKernels.INSTANCE.minMaxSum(v, base + from, base + to, stats);
+            min[j] = stats[0];
+            max[j] = stats[1];
+            sum[j] = stats[2];
+        }
+        count += to - from;
+    }
+
+    // 直接设置第j列的统计量和行数，供增量更新（如RankReversalAnalysis中移除一行）使用
+    void set(int j, double min, double max, double sum) {
+        this.min[j] = min;
+        this.max[j] = max;
+        this.sum[j] = sum;
+    }
+
+    void setCount(long count) {
+        this.count = count;
+    }
+
+    public ColumnStats copy() {
+        ColumnStats c = new ColumnStats(sum.length);
+        c.merge(this);
+        return c;
+    }
+
+    // 合并另一分片的统计量
+    public void merge(ColumnStats other) {
+        if (other.cols() != cols()) {
+            throw new IllegalArgumentException("列数不一致: " + cols() + " 与 " + other.cols());
+        }
+        for (int j = 0; j < sum.length; j++) {
+            min[j] = Math.min(min[j], other.min[j]);
+            max[j] = Math.max(max[j], other.max[j]);
+            sum[j] += other.sum[j];
+        }
+        count += other.count;
+    }
+
+    // 按列数、行数、最小值、最大值、累加和的顺序写出，供分片之间传输
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(sum.length);
+        out.writeLong(count);
+        for (int j = 0; j < sum.length; j++) {
+            out.writeDouble(min[j]);
+            out.writeDouble(max[j]);
+            out.writeDouble(sum[j]);
+        }
+    }
+
+    public static ColumnStats readFrom(DataInput in, int maxCols) throws IOException {
+        int cols = in.readInt();
+        if (cols < 0 || cols > maxCols) {
+            throw new IOException("无效的列数: " + cols);
+        }
+        ColumnStats stats = new ColumnStats(cols);
+        stats.count = in.readLong();
+        for (int j = 0; j < cols; j++) {
+            stats.min[j] = in.readDouble();
+            stats.max[j] = in.readDouble();
+            stats.sum[j] = in.readDouble();
+        }
+        return stats;
+    }
+
+    // 每列的归一化方式：1为正指标，-1为负指标，0为未列入（归一化结果为0）
+    public static int[] polarity(int cols, int[] posInd, int[] negInd) {
+        int[] kinds = new int[cols];
+        for (int j : posInd) {
+            if (j < cols) kinds[j] = 1;
+        }
+        for (int j : negInd) {
+            if (j < cols) kinds[j] = -1;
+        }
+        return kinds;
+    }
+
+    // 归一化后各列的均值s_j，写入means
+    public void normalizedMeans(int[] kinds, double[] means) {
+        for (int j = 0; j < sum.length; j++) {
+            double range = max[j] - min[j];
+            double mean = sum[j] / count;
+            if (kinds[j] == 0) {
+                means[j] = 0;
+            } else if (max[j] == min[j]) {
+                means[j] = 1;
+            } else if (kinds[j] > 0) {
+                means[j] = (mean - min[j]) / range;
+            } else {
+                means[j] = (max[j] - mean) / range;
+            }
+        }
+    }
+
+    // 用本统计量中的全局最小/最大值，原地归一化data的前n行
+    public void normalize(ColumnMatrix data, int n, int[] kinds) {
+        normalize(data, data, 0, n, kinds, null);
+    }
+
+    // 将src的第from..to-1行归一化后写入dst的相同位置，并把归一化后的列和累加到sums（可为null）
+    public void normalize(ColumnMatrix src, ColumnMatrix dst, int from, int to, int[] kinds, double[] sums) {
+        double[] in = src.array();
+        double[] out = dst.array();
+        for (int j = 0; j < sum.length; j++) {
+            int base = src.offset(j);
+            int target = dst.offset(j);
+            double lo = min[j];
+            double hi = max[j];
+            double s;
+            if (kinds[j] == 0) {
+                Arrays.fill(out, target + from, target + to, 0.0);
+                s = 0;
+            } else if (hi == lo) {
+                Arrays.fill(out, target + from, target + to, 1.0);
+                s = to - from;
+            } else {
+                s = ColumnKernels.INSTANCE.scale(in, base + from, out, target + from, to - from, lo, hi, kinds[j] > 0);
+            }
+            if (sums != null) sums[j] += s;
+        }
+    }
+}
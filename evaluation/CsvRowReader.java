@@ -0,0 +1,111 @@
+package evaluation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// CSV文本行读取：数值以逗号、空格或制表符分隔，'#'开头的行和空行跳过，
+// 首行若不能解析为数值则视为表头。列数由第一条数据行决定。
+public class CsvRowReader implements RowReader {
+    private final Path file;
+    private final BufferedReader reader;
+    private final int cols;
+    private double[] pending;
+    private long lineNo;
+
+    public CsvRowReader(Path file) throws IOException {
+        this.file = file;
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        String line = nextLine();
+        if (line != null && !startsNumeric(line)) {
+            line = nextLine();
+        }
+        if (line == null) {
+            cols = 0;
+        } else {
+            cols = countFields(line);
+            pending = new double[cols];
+            parse(line, pending);
+        }
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean next(double[] row) throws IOException {
+        if (pending != null) {
+            System.arraycopy(pending, 0, row, 0, cols);
+            pending = null;
+            return true;
+        }
+        String line = nextLine();
+        if (line == null) return false;
+        parse(line, row);
+        return true;
+    }
+
+    private String nextLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) return line;
+        }
+        return null;
+    }
+
+    private static boolean startsNumeric(String line) {
+        char c = line.charAt(0);
+        return Character.isDigit(c) || c == '-' || c == '+' || c == '.';
+    }
+
+    // 手工切分，避免每行编译正则，直接写入values的前cols个元素
+    private void parse(String line, double[] values) throws IOException {
+        int n = 0;
+        int len = line.length();
+        int i = 0;
+        while (i < len) {
+            while (i < len && isSeparator(line.charAt(i))) i++;
+            if (i >= len) break;
+            int start = i;
+            while (i < len && !isSeparator(line.charAt(i))) i++;
+            if (n >= cols) {
+                throw new IOException(file + " 第" + lineNo + "行: 列数超过首行(" + cols + ")");
+            }
+            String token = line.substring(start, i);
+            try {
+                values[n++] = Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new IOException(file + " 第" + lineNo + "行: 无法解析数值 \"" + token + "\"");
+            }
+        }
+        if (n != cols) {
+            throw new IOException(file + " 第" + lineNo + "行: 列数(" + n + ")与首行(" + cols + ")不一致");
+        }
+    }
+
+    private static int countFields(String line) {
+        int n = 0;
+        boolean inField = false;
+        for (int i = 0; i < line.length(); i++) {
+            boolean sep = isSeparator(line.charAt(i));
+            if (!sep && !inField) n++;
+            inField = !sep;
+        }
+        return n;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ' ' || c == '\t';
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,140 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// 偏离度参数(α, β)网格扫描
+//
+// 归一化矩阵A和列均值与α、β无关，只计算一次；各网格点只重新运行评分核，并行计算。
+//
+// 用法: java Main --sweep --alphas 网格 --betas 网格 [--parallel 并行度] 场景文件
+// 网格写作逗号分隔的取值（0.001,0.01,0.1），或"起点:终点:点数"的等距网格（0.001:0.1:5）
+public class DeviationSweep {
+
+    private final EvaluationEngine engine;
+    private final int parallelism;
+
+    public DeviationSweep(EvaluationEngine engine, int parallelism) {
+        this.engine = engine;
+        this.parallelism = parallelism;
+    }
+
+    public SweepResult run(double[][] data, WeightPlan plan, double[] alphas, double[] betas) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        if (alphas.length == 0 || betas.length == 0) {
+            throw new IllegalArgumentException("α、β网格不能为空");
+        }
+        ColumnMatrix A = engine.normalize(ColumnMatrix.fromRows(data));
+        if (A.cols() != plan.size()) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + A.cols() + ")与综合权重个数(" + plan.size() + ")不一致");
+        }
+        double[] means = new double[A.cols()];
+        ScoringKernel.columnMeans(A, means);
+        double[] weights = plan.weightsArray();
+        int n = A.rows();
+
+        // 以引擎当前的参数为基准
+        double[] baseScores = new double[n];
+        ScoringKernel.score(A, 0, n, means, weights, engine.alpha(), engine.beta(), baseScores);
+
+        int points = alphas.length * betas.length;
+        double[][] scores = new double[points][n];
+        int[][] rankings = new int[points][];
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, points)));
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int p = 0; p < points; p++) {
+                int point = p;
+                tasks.add(() -> {
+                    double alpha = alphas[point / betas.length];
+                    double beta = betas[point % betas.length];
+                    ScoringKernel.score(A, 0, n, means, weights, alpha, beta, scores[point]);
+                    rankings[point] = Ranking.sortDescending(scores[point]);
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("参数扫描被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("参数扫描出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new SweepResult(alphas.clone(), betas.clone(), engine.alpha(), engine.beta(),
+                baseScores, Ranking.sortDescending(baseScores), scores, rankings);
+    }
+
+    // 解析网格：逗号分隔的取值，或"起点:终点:点数"
+    public static double[] parseGrid(String spec) {
+        String[] range = spec.split(":");
+        if (range.length == 3) {
+            double start = Double.parseDouble(range[0]);
+            double end = Double.parseDouble(range[1]);
+            int count = Integer.parseInt(range[2]);
+            if (count < 1) {
+                throw new IllegalArgumentException("网格点数必须为正数: " + spec);
+            }
+            double[] grid = new double[count];
+            for (int i = 0; i < count; i++) {
+                grid[i] = count == 1 ? start : start + (end - start) * i / (count - 1);
+            }
+            return grid;
+        }
+        String[] parts = spec.split(",");
+        double[] grid = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            grid[i] = Double.parseDouble(parts[i].trim());
+        }
+        return grid;
+    }
+
+    public static void main(String[] args) {
+        double[] alphas = {EvaluationEngine.DEFAULT_ALPHA};
+        double[] betas = {EvaluationEngine.DEFAULT_BETA};
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String file = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--alphas") && i + 1 < args.length) {
+                    alphas = parseGrid(args[++i]);
+                } else if (args[i].equals("--betas") && i + 1 < args.length) {
+                    betas = parseGrid(args[++i]);
+                } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                    parallelism = Integer.parseInt(args[++i]);
+                } else {
+                    file = args[i];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            file = null;
+        }
+        if (file == null) {
+            System.err.println("用法: java Main --sweep --alphas 网格 --betas 网格 [--parallel 并行度] 场景文件");
+            System.exit(2);
+        }
+
+        try {
+            Scenario scenario = Scenario.open(Paths.get(file));
+            SweepResult result = new DeviationSweep(scenario.engine(), parallelism)
+                    .run(scenario.getData(), scenario.plan(), alphas, betas);
+            System.out.print(result.formatReport());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("参数扫描出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package evaluation;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+// 效能评估计算引擎：不依赖Swing界面，可在无界面环境下直接调用
+public class EvaluationEngine {
+
+    // 默认正指标、负指标（数据矩阵的列下标）
+    public static final int[] DEFAULT_POS_INDICATORS = {0,1,2,3,4,5,8,19,20,23,26,27,28,29,30,31,32,33};
+    public static final int[] DEFAULT_NEG_INDICATORS = {6,7,9,10,11,12,13,14,15,16,17,18,21,22,24,25};
+
+    // 偏离度参数默认值
+    public static final double DEFAULT_ALPHA = 0.01;
+    public static final double DEFAULT_BETA = 0.01;
+
+    private final int[] posIndicators;
+    private final int[] negIndicators;
+    private final double alpha;
+    private final double beta;
+
+    public EvaluationEngine() {
+        this(DEFAULT_POS_INDICATORS, DEFAULT_NEG_INDICATORS, DEFAULT_ALPHA, DEFAULT_BETA);
+    }
+
+    public EvaluationEngine(int[] posIndicators, int[] negIndicators, double alpha, double beta) {
+        this.posIndicators = posIndicators.clone();
+        this.negIndicators = negIndicators.clone();
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    // 按本引擎的正负指标归一化，返回新的矩阵A
+    ColumnMatrix normalize(ColumnMatrix data) {
+        return normalizeData(data, new ColumnMatrix(data.rows(), data.cols()), posIndicators, negIndicators);
+    }
+
+    // 每列的归一化方式，见ColumnStats.polarity
+    int[] polarity(int cols) {
+        return ColumnStats.polarity(cols, posIndicators, negIndicators);
+    }
+
+    // 正指标列下标
+    public int[] posIndicators() {
+        return posIndicators.clone();
+    }
+
+    // 负指标列下标
+    public int[] negIndicators() {
+        return negIndicators.clone();
+    }
+
+    // 偏离度参数α（A_ij不高于列均值时使用）
+    public double alpha() {
+        return alpha;
+    }
+
+    // 偏离度参数β（A_ij高于列均值时使用）
+    public double beta() {
+        return beta;
+    }
+
+    // 当前使用的列计算实现（scalar或vector），见ColumnKernels
+    public static String kernelBackend() {
+        return ColumnKernels.INSTANCE.name();
+    }
+
+    // 正负指标不变，只替换偏离度参数
+    public EvaluationEngine withDeviationParameters(double alpha, double beta) {
+        return new EvaluationEngine(posIndicators, negIndicators, alpha, beta);
+    }
+
+    // 计算效能值：judgments[0]为一级指标判断矩阵R1，其余依次为R2..R8
+    public EvaluationResult evaluate(double[][] data, double[][][] judgments) {
+        return evaluate(data, judgments, ProgressListener.NONE);
+    }
+
+    // 带进度回调的计算；线程被中断时在阶段之间抛出CancellationException
+    public EvaluationResult evaluate(double[][] data, double[][][] judgments, ProgressListener listener) {
+        WeightPlan plan = WeightPlan.of(judgments);
+        checkpoint(listener, 10);
+        return evaluate(data, plan.weightsArray(), listener);
+    }
+
+    // 使用缓存的综合权重方案计算效能值，判断矩阵未变化时无需重新推导权重
+    public EvaluationResult evaluate(double[][] data, WeightPlan plan) {
+        return evaluate(data, plan.weightsArray(), ProgressListener.NONE);
+    }
+
+    public EvaluationResult evaluate(double[][] data, WeightPlan plan, ProgressListener listener) {
+        return evaluate(data, plan.weightsArray(), listener);
+    }
+
+    // 使用已经组合好的综合权重计算效能值
+    public EvaluationResult evaluate(double[][] data, double[] weights) {
+        return evaluate(data, weights, ProgressListener.NONE);
+    }
+
+    public EvaluationResult evaluate(double[][] data, double[] weights, ProgressListener listener) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        double[] Ui = new double[data.length];
+        score(ColumnMatrix.fromRows(data), weights, Ui, listener);
+        return new EvaluationResult(Ui);
+    }
+
+    // 计算效能值并写入调用方提供的out（长度不小于技术数量），不构造排名
+    public double[] score(double[][] data, WeightPlan plan, double[] out) {
+        return score(ColumnMatrix.fromRows(data), plan.weightsArray(), out, ProgressListener.NONE);
+    }
+
+    // 直接对按列存储的数据评分，省去行列转换
+    public double[] score(ColumnMatrix data, WeightPlan plan, double[] out) {
+        return score(data, plan.weightsArray(), out, ProgressListener.NONE);
+    }
+
+    public EvaluationResult evaluate(ColumnMatrix data, WeightPlan plan) {
+        return new EvaluationResult(score(data, plan, new double[data.rows()]));
+    }
+
+    // 对堆外矩阵评分：先逐块统计各列最小/最大值和均值，再逐块复制到堆上归一化并评分，
+    // 堆上只占用一个块和结果数组
+    public double[] score(OffHeapMatrix data, WeightPlan plan, double[] out) {
+        if (data.cols() != plan.size()) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + data.cols() + ")与综合权重个数(" + plan.size() + ")不一致");
+        }
+        return score(data, plan, data.stats(), out);
+    }
+
+    // 使用给定的列统计量（如多个分片合并后的全局统计量）归一化并评分
+    public double[] score(OffHeapMatrix data, WeightPlan plan, ColumnStats stats, double[] out) {
+        int cols = plan.size();
+        if (data.cols() != cols || stats.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + data.cols() + ")、统计量列数(" + stats.cols() + ")与综合权重个数(" + cols + ")不一致");
+        }
+        if (out.length < data.rows()) {
+            throw new IllegalArgumentException("结果缓冲区长度(" + out.length + ")小于技术数量(" + data.rows() + ")");
+        }
+        int[] kinds = polarity(cols);
+        double[] means = new double[cols];
+        stats.normalizedMeans(kinds, means);
+
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+        ColumnMatrix chunk = data.newChunk();
+        double[] scores = new double[chunk.rows()];
+        for (int from = 0; from < data.rows(); from += chunk.rows()) {
+            int n = Math.min(chunk.rows(), data.rows() - from);
+            data.read(from, n, chunk);
+            stats.normalize(chunk, n, kinds);
+            ScoringKernel.score(chunk, 0, n, means, plan.weightsArray(), alpha, beta, scores);
+            System.arraycopy(scores, 0, out, from, n);
+        }
+        timer.stop(data.rows());
+        PipelineMetrics.addRows(data.rows());
+        return out;
+    }
+
+    public EvaluationResult evaluate(OffHeapMatrix data, WeightPlan plan) {
+        return new EvaluationResult(score(data, plan, new double[data.rows()]));
+    }
+
+    // float存储模式：数据和归一化矩阵都按float保存，累加仍用double，误差见PrecisionReport
+    public double[] score(FloatColumnMatrix data, WeightPlan plan, double[] out) {
+        int cols = plan.size();
+        if (data.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + data.cols() + ")与综合权重个数(" + cols + ")不一致");
+        }
+        if (out.length < data.rows()) {
+            throw new IllegalArgumentException("结果缓冲区长度(" + out.length + ")小于技术数量(" + data.rows() + ")");
+        }
+
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.NORMALIZE);
+        FloatColumnMatrix A = normalizeData(data, new FloatColumnMatrix(data.rows(), cols), posIndicators, negIndicators);
+        timer.stop(A.rows());
+
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.MEANS);
+        double[] means = ScoringKernel.workspace().means(cols);
+        ScoringKernel.columnMeans(A, means);
+        timer.stop(A.rows());
+
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+        ScoringKernel.score(A, 0, A.rows(), means, plan.weightsArray(), alpha, beta, out);
+        timer.stop(A.rows());
+        PipelineMetrics.addRows(A.rows());
+        return out;
+    }
+
+    public EvaluationResult evaluate(FloatColumnMatrix data, WeightPlan plan) {
+        return new EvaluationResult(score(data, plan, new double[data.rows()]));
+    }
+
+    private double[] score(ColumnMatrix data, double[] weights, double[] out, ProgressListener listener) {
+        int cols = weights.length;
+        if (data.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + data.cols() + ")与综合权重个数(" + cols + ")不一致");
+        }
+        if (out.length < data.rows()) {
+            throw new IllegalArgumentException("结果缓冲区长度(" + out.length + ")小于技术数量(" + data.rows() + ")");
+        }
+
+        // 按指标归一化，数据本身已按列存储，无需转置
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.NORMALIZE);
+        ColumnMatrix A = normalize(data);
+        timer.stop(A.rows());
+        checkpoint(listener, 40);
+
+        // 计算列均值
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.MEANS);
+        double[] means = ScoringKernel.workspace().means(cols);
+        ScoringKernel.columnMeans(A, means);
+        timer.stop(A.rows());
+        checkpoint(listener, 60);
+
+        // 偏离度、动态权值和效能值一次完成
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+        ScoringKernel.score(A, 0, A.rows(), means, weights, alpha, beta, out);
+        timer.stop(A.rows());
+        PipelineMetrics.addRows(A.rows());
+        checkpoint(listener, 100);
+        return out;
+    }
+
+    static void checkpoint(ProgressListener listener, int percent) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("计算已取消");
+        }
+        listener.onProgress(percent);
+    }
+
+    // 组合综合权重：W1[k] × W(k+2)，依次拼接成一个权重向量
+    public static double[] combinedWeights(double[][][] judgments) {
+        return WeightPlan.of(judgments).getWeights();
+    }
+
+    // 矩阵转置
+    public static double[][] transpose(double[][] matrix) {
+        int rows = matrix.length;
+        int cols = matrix[0].length;
+        double[][] result = new double[cols][rows];
+        for (int i = 0; i < cols; i++) {
+            for (int j = 0; j < rows; j++) {
+                result[i][j] = matrix[j][i];
+            }
+        }
+        return result;
+    }
+
+    public static double[][] normalizeData(double[][] data, int[] posInd, int[] negInd) {
+        int rows = data.length;
+        int cols = data[0].length;
+        double[][] normalized = new double[rows][cols];
+
+        // 处理正指标
+        for (int i : posInd) {
+            if (i >= rows) continue;
+            double[] col = data[i];
+            double min = Arrays.stream(col).min().getAsDouble();
+            double max = Arrays.stream(col).max().getAsDouble();
+            for (int j = 0; j < cols; j++)
+                normalized[i][j] = (max != min) ? (col[j]-min)/(max-min) : 1;
+        }
+
+        // 处理负指标
+        for (int i : negInd) {
+            if (i >= rows) continue;
+            double[] col = data[i];
+            double min = Arrays.stream(col).min().getAsDouble();
+            double max = Arrays.stream(col).max().getAsDouble();
+            for (int j = 0; j < cols; j++)
+                normalized[i][j] = (max != min) ? (max - col[j])/(max-min) : 1;
+        }
+        return normalized;
+    }
+
+    // 按列存储版本的归一化：结果写入dst，未列入正负指标的列置0
+    // 每个指标只出现在一个列表中时，dst可以就是src（原地归一化）
+    public static ColumnMatrix normalizeData(ColumnMatrix src, ColumnMatrix dst, int[] posInd, int[] negInd) {
+        int rows = src.rows();
+        int cols = src.cols();
+        double[] in = src.array();
+        double[] out = dst.array();
+        boolean[] covered = new boolean[cols];
+
+        // 处理正指标
+        for (int j : posInd) {
+            if (j >= cols) continue;
+            covered[j] = true;
+            int base = src.offset(j);
+            int target = dst.offset(j);
+            double[] stats = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0};
+            ColumnKernels.INSTANCE.minMaxSum(in, base, base + rows, stats);
+            if (stats[1] != stats[0])
+                ColumnKernels.INSTANCE.scale(in, base, out, target, rows, stats[0], stats[1], true);
+            else
+                Arrays.fill(out, target, target + rows, 1);
+        }
+
+        // 处理负指标
+        for (int j : negInd) {
+            if (j >= cols) continue;
+            covered[j] = true;
+            int base = src.offset(j);
+            int target = dst.offset(j);
+            double[] stats = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0};
+            ColumnKernels.INSTANCE.minMaxSum(in, base, base + rows, stats);
+            if (stats[1] != stats[0])
+                ColumnKernels.INSTANCE.scale(in, base, out, target, rows, stats[0], stats[1], false);
+            else
+                Arrays.fill(out, target, target + rows, 1);
+        }
+
+        for (int j = 0; j < cols; j++) {
+            if (!covered[j]) Arrays.fill(out, dst.offset(j), dst.offset(j) + rows, 0.0);
+        }
+        return dst;
+    }
+
+    // float存储版本的归一化，规则与按列存储版本相同，归一化结果舍入为float
+    public static FloatColumnMatrix normalizeData(FloatColumnMatrix src, FloatColumnMatrix dst, int[] posInd, int[] negInd) {
+        int rows = src.rows();
+        int cols = src.cols();
+        float[] in = src.array();
+        float[] out = dst.array();
+        int[] kinds = ColumnStats.polarity(cols, posInd, negInd);
+        double[] stats = new double[3];
+        for (int j = 0; j < cols; j++) {
+            int base = src.offset(j);
+            int target = dst.offset(j);
+            if (kinds[j] == 0) {
+                Arrays.fill(out, target, target + rows, 0f);
+                continue;
+            }
+            stats[0] = Double.POSITIVE_INFINITY;
+            stats[1] = Double.NEGATIVE_INFINITY;
+            stats[2] = 0;
+            ColumnKernels.INSTANCE.minMaxSum(in, base, base + rows, stats);
+            if (stats[1] != stats[0])
+                ColumnKernels.INSTANCE.scale(in, base, out, target, rows, stats[0], stats[1], kinds[j] > 0);
+            else
+                Arrays.fill(out, target, target + rows, 1f);
+        }
+        return dst;
+    }
+
+    // 堆外版本的归一化：先逐块统计，再逐块归一化写入dst（可以就是src），未列入正负指标的列置0
+    public static OffHeapMatrix normalizeData(OffHeapMatrix src, OffHeapMatrix dst, int[] posInd, int[] negInd) {
+        if (dst.rows() != src.rows() || dst.cols() != src.cols()) {
+            throw new IllegalArgumentException("目标矩阵大小与数据矩阵不一致");
+        }
+        int[] kinds = ColumnStats.polarity(src.cols(), posInd, negInd);
+        ColumnStats stats = src.stats();
+        ColumnMatrix chunk = src.newChunk();
+        for (int from = 0; from < src.rows(); from += chunk.rows()) {
+            int n = Math.min(chunk.rows(), src.rows() - from);
+            src.read(from, n, chunk);
+            stats.normalize(chunk, n, kinds);
+            dst.write(chunk, from, n);
+        }
+        return dst;
+    }
+
+    // 创建全值矩阵
+    public static double[][] createFullMatrix(int size, double value) {
+        double[][] matrix = new double[size][size];
+        for (double[] row : matrix) {
+            Arrays.fill(row, value);
+        }
+        return matrix;
+    }
+
+    // 转换为一致矩阵
+    public static double[][] toConsistentMatrix(double[][] matrix) {
+        int n = matrix.length;
+        return toConsistentMatrix(matrix, new double[n], new double[n][n]);
+    }
+
+    // 写入调用方提供的缓冲区：xi长度为n，Q为n×n
+    public static double[][] toConsistentMatrix(double[][] matrix, double[] xi, double[][] Q) {
+        int n = matrix.length;
+        rowSums(matrix, xi);
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                Q[i][j] = (xi[i] - xi[j]) / (2 * n) + 0.5;
+            }
+        }
+        return Q;
+    }
+
+    // 计算排序向量
+    public static double[] rankingVector(double[][] F) {
+        return rankingVector(F, new double[F.length]);
+    }
+
+    // 写入调用方提供的w（长度为n）
+    public static double[] rankingVector(double[][] F, double[] w) {
+        int n = F.length;
+        if (n == 1) {
+            // 只有一个子指标时权重为1（下式分母为0）
+            w[0] = 1;
+            return w;
+        }
+        double a = (n-1)/2.0;
+        for (int i = 0; i < n; i++) {
+            double sum = sum(F[i]);
+            w[i] = 1.0/n - 1.0/(2*a) + sum/(n*a);
+        }
+        return w;
+    }
+
+    // 判断矩阵的行和x_i，写入xi（长度为n）。NaN表示未填写的元素：r_ji已填写时按互补关系取1-r_ji，
+    // 否则（包括对角线）取0.5。矩阵完整时与逐行求和逐位相同
+    public static double[] rowSums(double[][] matrix, double[] xi) {
+        int n = matrix.length;
+        for (int i = 0; i < n; i++) {
+            double[] row = matrix[i];
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                double r = row[j];
+                if (r != r) {
+                    double c = matrix[j][i];
+                    r = (i != j && c == c) ? 1 - c : 0.5;
+                }
+                sum += r;
+            }
+            xi[i] = sum;
+        }
+        return xi;
+    }
+
+    // 补全未填写的元素（规则同rowSums），返回新矩阵
+    public static double[][] completeMatrix(double[][] matrix) {
+        int n = matrix.length;
+        double[][] result = new double[n][];
+        for (int i = 0; i < n; i++) {
+            result[i] = matrix[i].clone();
+            for (int j = 0; j < n; j++) {
+                if (result[i][j] != result[i][j]) {
+                    double c = matrix[j][i];
+                    result[i][j] = (i != j && c == c) ? 1 - c : 0.5;
+                }
+            }
+        }
+        return result;
+    }
+
+    // 由行和直接求排序向量，不构造一致矩阵Q：
+    // Q的第i行和为 x_i/2 - X/(2n) + n/2（X为全部行和之和），代入rankingVector化简得
+    //   w_i = 1/n + (x_i - X/n) / (n(n-1))
+    // 与toConsistentMatrix + rankingVector在数学上相等，舍入误差在1e-16量级。时间O(n)，不分配内存
+    public static double[] rankingVectorFromRowSums(double[] xi, double[] w) {
+        int n = xi.length;
+        if (n == 1) {
+            w[0] = 1;
+            return w;
+        }
+        double mean = sum(xi) / n;
+        double scale = (double) n * (n - 1);
+        for (int i = 0; i < n; i++) {
+            w[i] = 1.0 / n + (xi[i] - mean) / scale;
+        }
+        return w;
+    }
+
+    // 计算偏离度矩阵
+    public static double[][] calculateDeviation(double[][] A, double alpha, double beta) {
+        int rows = A.length;
+        int cols = A[0].length;
+        double[] s_j = new double[cols];
+        Arrays.fill(s_j, 0.0);
+
+        // 计算列均值
+        for (int j = 0; j < cols; j++) {
+            for (int i = 0; i < rows; i++) {
+                s_j[j] += A[i][j];
+            }
+            s_j[j] /= rows;
+        }
+
+        // 计算偏离度
+        double[][] S = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (A[i][j] <= s_j[j]) {
+                    S[i][j] = (alpha + s_j[j]) / (alpha + A[i][j]);
+                } else {
+                    S[i][j] = (beta + A[i][j]) / (beta + s_j[j]);
+                }
+            }
+        }
+        return S;
+    }
+
+    // 按列存储版本的偏离度矩阵
+    public static ColumnMatrix calculateDeviation(ColumnMatrix A, double alpha, double beta) {
+        int rows = A.rows();
+        int cols = A.cols();
+        double[] s_j = new double[cols];
+        ScoringKernel.columnMeans(A, s_j);
+
+        double[] in = A.array();
+        ColumnMatrix S = new ColumnMatrix(rows, cols);
+        double[] out = S.array();
+        for (int j = 0; j < cols; j++) {
+            int base = A.offset(j);
+            for (int i = 0; i < rows; i++) {
+                double a = in[base + i];
+                out[base + i] = (a <= s_j[j]) ? (alpha + s_j[j]) / (alpha + a) : (beta + a) / (beta + s_j[j]);
+            }
+        }
+        return S;
+    }
+
+    // 堆外版本的偏离度矩阵，结果写入S（可以就是A）
+    public static OffHeapMatrix calculateDeviation(OffHeapMatrix A, double alpha, double beta, OffHeapMatrix S) {
+        if (S.rows() != A.rows() || S.cols() != A.cols()) {
+            throw new IllegalArgumentException("目标矩阵大小与数据矩阵不一致");
+        }
+        int rows = A.rows();
+        ColumnStats stats = A.stats();
+        ColumnMatrix chunk = A.newChunk();
+        double[] v = chunk.array();
+        for (int from = 0; from < rows; from += chunk.rows()) {
+            int n = Math.min(chunk.rows(), rows - from);
+            A.read(from, n, chunk);
+            for (int j = 0; j < A.cols(); j++) {
+                double s_j = stats.mean(j);
+                int base = chunk.offset(j);
+                for (int i = base; i < base + n; i++) {
+                    double a = v[i];
+                    v[i] = (a <= s_j) ? (alpha + s_j) / (alpha + a) : (beta + a) / (beta + s_j);
+                }
+            }
+            S.write(chunk, from, n);
+        }
+        return S;
+    }
+
+    // 行归一化
+    public static double[][] normalizeRows(double[][] matrix) {
+        double[][] result = new double[matrix.length][matrix[0].length];
+        for (int i = 0; i < matrix.length; i++) {
+            double sum = sum(matrix[i]);
+            for (int j = 0; j < matrix[i].length; j++) {
+                result[i][j] = matrix[i][j] / sum;
+            }
+        }
+        return result;
+    }
+
+    // 计算效能值
+    public static double[] calculateEfficiencyValues(double[][] A, double[][] alpha) {
+        double[] results = new double[A.length];
+        for (int i = 0; i < A.length; i++) {
+            double sum = 0;
+            for (int j = 0; j < A[i].length; j++) {
+                sum += alpha[i][j] * A[i][j];
+            }
+            results[i] = sum;
+        }
+        return results;
+    }
+
+    // 辅助函数：数组求和
+    static double sum(double[] arr) {
+        double sum = 0;
+        for (double num : arr) {
+            sum += num;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,268 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// 异步评估日志：记录先进入队列，由后台线程成批写入一个长期打开的文件通道
+//
+// 日志文件为 目录/效能评估记录_yyyy-MM-dd.txt，日期变化时换新文件；
+// 超过maxBytes时把当前文件改名为 效能评估记录_yyyy-MM-dd.N.txt 再新建，
+// 每次新建文件（日期变化或改名之后）前，目录下的日志文件超过maxFiles个时删除最旧的。同一批记录总是写入同一个文件。
+//
+// 配置（系统属性）：evaluation.log.dump = full | compact | none（默认compact），
+// evaluation.log.maxBytes（默认16MB），evaluation.log.maxFiles（默认30）
+public class EvaluationLog implements AutoCloseable {
+
+    // 日志中矩阵的输出方式
+    public enum Dump {
+        FULL,     // 全部行
+        COMPACT,  // 数据矩阵只输出前COMPACT_ROWS行，判断矩阵完整输出
+        NONE      // 不输出矩阵
+    }
+
+    public static final String PREFIX = "效能评估记录_";
+    public static final int COMPACT_ROWS = 20;
+
+    private static final int BATCH = 256;
+    // 队列满时最多等待的时间，超时则放弃该记录，不阻塞调用方
+    private static final long OFFER_TIMEOUT_MILLIS = 2000;
+    private static final String CLOSE = new String("");
+
+    private final Path dir;
+    private final Dump dump;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(1024);
+    private final Thread writer;
+
+    private FileChannel channel;
+    private LocalDate openDate;
+    private volatile Path currentFile;
+    private volatile String lastError;
+
+    public EvaluationLog(Path dir, Dump dump, long maxBytes, int maxFiles) {
+        this.dir = dir;
+        this.dump = dump;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.currentFile = fileFor(LocalDate.now());
+        writer = new Thread(this::drain, "evaluation-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // 按系统属性创建，写入logs目录；退出时写完队列中的记录
+    public static EvaluationLog fromSystemProperties() {
+        Dump dump = Dump.valueOf(System.getProperty("evaluation.log.dump", "compact").toUpperCase());
+        long maxBytes = Long.getLong("evaluation.log.maxBytes", 16L << 20);
+        int maxFiles = Integer.getInteger("evaluation.log.maxFiles", 30);
+        EvaluationLog log = new EvaluationLog(Paths.get("logs"), dump, maxBytes, maxFiles);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+        return log;
+    }
+
+    public Dump dump() {
+        return dump;
+    }
+
+    // 矩阵最多输出的行数
+    public int dumpRows(int rows, boolean dataMatrix) {
+        switch (dump) {
+            case NONE: return 0;
+            case COMPACT: return dataMatrix ? Math.min(rows, COMPACT_ROWS) : rows;
+            default: return rows;
+        }
+    }
+
+    // 提交一条记录，不等待写盘；返回用于显示的保存信息
+    public String append(String record) {
+        try {
+            if (!queue.offer(record, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                lastError = writer.isAlive() ? "日志队列已满，本条记录未保存" : "日志写入线程已停止，本条记录未保存";
+                return "\n保存记录文件时出错: " + lastError;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "\n保存记录文件时出错: 写入被中断";
+        }
+        String error = lastError;
+        if (error != null) {
+            return "\n保存记录文件时出错: " + error;
+        }
+        return "\n计算记录已保存到文件: " + currentFile;
+    }
+
+    // 写完已提交的记录后停止后台线程
+    @Override
+    public void close() {
+        if (!writer.isAlive()) return;
+        try {
+            if (queue.offer(CLOSE, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                writer.join(5000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(BATCH);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH - 1);
+                boolean closing = false;
+                int records = 0;
+                StringBuilder sb = new StringBuilder();
+                for (String record : batch) {
+                    if (record == CLOSE) {
+                        closing = true;
+                    } else {
+                        sb.append(record);
+                        records++;
+                    }
+                }
+                batch.clear();
+                if (sb.length() > 0) {
+                    // 本批出错只丢弃本批，写入线程继续运行
+                    try {
+                        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.LOG_WRITE);
+                        ByteBuffer bytes = StandardCharsets.UTF_8.encode(sb.toString());
+                        int size = bytes.remaining();
+                        if (write(bytes)) {
+                            timer.stop(records, size);
+                            PipelineMetrics.addLogged(records, size);
+                        }
+                    } catch (RuntimeException e) {
+                        lastError = e.toString();
+                        closeChannel();
+                    }
+                }
+                if (closing) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    // 写入成功时返回true
+    private boolean write(ByteBuffer bytes) {
+        try {
+            LocalDate today = LocalDate.now();
+            if (channel == null || !today.equals(openDate)) {
+                closeChannel();
+                if (!Files.exists(fileFor(today))) {
+                    prune(listFiles(), 1);
+                }
+                open(today);
+            } else if (channel.size() > 0 && channel.size() + bytes.remaining() > maxBytes) {
+                closeChannel();
+                rotate(today);
+                open(today);
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            lastError = null;
+            return true;
+        } catch (IOException e) {
+            lastError = e.getMessage();
+            closeChannel();
+            return false;
+        }
+    }
+
+    private void open(LocalDate date) throws IOException {
+        Files.createDirectories(dir);
+        currentFile = fileFor(date);
+        channel = FileChannel.open(currentFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        openDate = date;
+    }
+
+    // 当前文件改名为下一个编号，并按maxFiles清理旧文件
+    private void rotate(LocalDate date) throws IOException {
+        List<Path> files = listFiles();
+        long n = 0;
+        for (Path p : files) {
+            if (dateOf(p).equals(date.toString()) && indexOf(p) != Long.MAX_VALUE) {
+                n = Math.max(n, indexOf(p));
+            }
+        }
+        Path rotated = dir.resolve(PREFIX + date + "." + (n + 1) + ".txt");
+        Files.move(fileFor(date), rotated, StandardCopyOption.ATOMIC_MOVE);
+        files.set(files.indexOf(fileFor(date)), rotated);
+        prune(files, 1);
+    }
+
+    // 目录下的日志文件，按日期、编号排序，不带编号的当天文件最新
+    private List<Path> listFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*.txt")) {
+            for (Path p : stream) {
+                files.add(p);
+            }
+        }
+        files.sort(Comparator.comparing((Path p) -> dateOf(p)).thenComparingLong(EvaluationLog::indexOf));
+        return files;
+    }
+
+    // 删除最旧的文件，为即将新建的reserve个文件留出位置，使总数不超过maxFiles
+    private void prune(List<Path> files, int reserve) throws IOException {
+        int excess = Math.min(files.size(), files.size() + reserve - maxFiles);
+        for (int i = 0; i < excess; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    // 文件名中的日期部分
+    private static String dateOf(Path p) {
+        String name = p.getFileName().toString();
+        int end = name.indexOf('.', PREFIX.length());
+        return name.substring(PREFIX.length(), end);
+    }
+
+    // 文件名中的编号，不带编号时为Long.MAX_VALUE
+    private static long indexOf(Path p) {
+        String name = p.getFileName().toString();
+        String[] parts = name.substring(0, name.length() - ".txt".length()).split("\\.");
+        if (parts.length < 2) return Long.MAX_VALUE;
+        try {
+            return Long.parseLong(parts[parts.length - 1]);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private Path fileFor(LocalDate date) {
+        return dir.resolve(PREFIX + date + ".txt");
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            lastError = e.getMessage();
+        }
+        channel = null;
+    }
+}
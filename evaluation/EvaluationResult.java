@@ -0,0 +1,72 @@
+package evaluation;
+
+import java.text.DecimalFormat;
+
+// 一次评估的结果：各技术效能值Ui及降序排名
+//
+// 排名按需计算：只取前k名或某一页时不做全排序
+public class EvaluationResult {
+    private final double[] scores;
+    private int[] ranking;
+
+    public EvaluationResult(double[] scores) {
+        this.scores = scores;
+    }
+
+    // 各技术的效能值，下标与数据矩阵的行一致
+    public double[] getScores() {
+        return scores.clone();
+    }
+
+    public double getScore(int technology) {
+        return scores[technology];
+    }
+
+    // 按效能值降序排列的技术下标（从0开始），效能值相同时下标小的在前
+    public int[] getRanking() {
+        return fullRanking().clone();
+    }
+
+    // 前k名的技术下标
+    public int[] topK(int k) {
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.RANKING);
+        int[] top = Ranking.topK(scores, k);
+        timer.stop(scores.length);
+        return top;
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    private synchronized int[] fullRanking() {
+        if (ranking == null) {
+            PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.RANKING);
+            ranking = Ranking.sortDescending(scores);
+            timer.stop(scores.length);
+        }
+        return ranking;
+    }
+
+    // 格式化排行榜，与界面显示一致（装备编号从1开始）
+    public String formatRanking() {
+        return formatRanking(0, scores.length);
+    }
+
+    // 只格式化第offset+1名起的count名（分页显示）
+    public String formatRanking(int offset, int count) {
+        int end = (int) Math.min(scores.length, (long) offset + count);
+        int[] top = end == scores.length ? fullRanking() : topK(end);
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.FORMAT);
+        StringBuilder sb = new StringBuilder();
+        DecimalFormat df = new DecimalFormat("0.0000");
+        for (int i = offset; i < end; i++) {
+            sb.append(String.format("第%d名: 装备%-2d | 效能值: %s\n",
+                    i + 1,
+                    top[i] + 1,
+                    df.format(scores[top[i]])));
+        }
+        timer.stop(end - offset);
+        return sb.toString();
+    }
+}
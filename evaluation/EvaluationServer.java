@@ -0,0 +1,349 @@
+package evaluation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 内嵌HTTP评估服务（JDK自带的com.sun.net.httpserver），请求体为场景文本（格式见Scenario），响应为JSON
+//
+// 用法: java Main --serve [--host 地址] [--port 端口] [--plans 缓存方案数] [--max-body 请求体上限MB]
+//
+//   POST /evaluate[?top=K]  单个场景，只能有一个[data]段落
+//        响应 {"technologies":n,"scores":[...],"ranking":[装备编号...]}
+//   POST /batch[?top=K]     一套判断矩阵、多个数据矩阵段落[data]、[data 名称]...，
+//        响应 {"results":[{"name":"data 名称","technologies":n,"scores":[...],"ranking":[...]}, ...]}
+//   GET  /health            {"status":"ok","kernels":...,"plans":{...},"requests":...,"errors":...}
+//   GET  /metrics           进程内累计的分阶段耗时和计数，格式见PipelineMetrics.Snapshot.toJson
+//
+// 场景错误返回400 {"error":"..."}。装备编号从1开始，ranking按效能值从高到低排列，
+// 给出top时只返回前K名（scores仍为全部）。
+//
+// 每个请求在独立的虚拟线程上处理（JDK 21及以上；更早的JDK退回普通线程池）。编译后的综合权重方案
+// 按指标体系和判断矩阵的内容缓存（LRU），相同权重的请求直接复用，不再重新推导。
+public class EvaluationServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_PLAN_CACHE = 64;
+    public static final int DEFAULT_MAX_BODY = 64 << 20;
+    // --max-body以MB给出，2047MB左移20位后仍在int范围内，读取时多读的1字节也不会溢出
+    static final int MAX_BODY_LIMIT_MB = 2047;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final PlanCache plans;
+    private final int maxBody;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public EvaluationServer(InetSocketAddress address, int planCacheSize, int maxBody) throws IOException {
+        this.plans = new PlanCache(planCacheSize);
+        this.maxBody = maxBody;
+        this.executor = newExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/evaluate", exchange -> handle(exchange, false));
+        server.createContext("/batch", exchange -> handle(exchange, true));
+        server.createContext("/health", this::health);
+        server.createContext("/metrics", this::metrics);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // 最多等待delaySeconds秒让进行中的请求完成
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // 线程实现名称，用于日志
+    public static String threadModel() {
+        return virtualThreadFactory() != null ? "virtual" : "platform";
+    }
+
+    private static ExecutorService newExecutor() {
+        Method factory = virtualThreadFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // 退回普通线程池
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor（JDK 21），不存在时返回null。通过反射调用，仍可按JDK 17编译
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private void handle(HttpExchange exchange, boolean batch) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "只支持POST");
+                return;
+            }
+            int top;
+            String body;
+            try {
+                top = parseTop(exchange.getRequestURI());
+                body = readBody(exchange.getRequestBody());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            } catch (BodyTooLargeException e) {
+                sendError(exchange, 413, "请求体超过" + maxBody + "字节");
+                return;
+            }
+
+            StringBuilder json = new StringBuilder();
+            try {
+                Path source = Paths.get(exchange.getRequestURI().getPath());
+                BufferedReader reader = new BufferedReader(new StringReader(body));
+                if (batch) {
+                    Map<String, Scenario> scenarios = Scenario.readBatch(reader, source);
+                    json.append("{\"results\":[");
+                    boolean first = true;
+                    for (Map.Entry<String, Scenario> e : scenarios.entrySet()) {
+                        if (!first) json.append(',');
+                        first = false;
+                        json.append("{\"name\":");
+                        Json.appendString(json, e.getKey());
+                        json.append(',');
+                        appendResult(json, evaluate(e.getValue()), top);
+                        json.append('}');
+                    }
+                    json.append("]}");
+                } else {
+                    json.append('{');
+                    appendResult(json, evaluate(Scenario.read(reader, source)), top);
+                    json.append('}');
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, String.valueOf(e));
+                return;
+            }
+            send(exchange, 200, json.toString());
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"kernels\":");
+            Json.appendString(json, EvaluationEngine.kernelBackend());
+            json.append(",\"threads\":");
+            Json.appendString(json, threadModel());
+            json.append(",\"plans\":");
+            plans.appendStats(json);
+            json.append(",\"requests\":").append(requests.get())
+                    .append(",\"errors\":").append(errors.get()).append('}');
+            send(exchange, 200, json.toString());
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, PipelineMetrics.snapshot().toJson());
+        }
+    }
+
+    private EvaluationResult evaluate(Scenario scenario) {
+        return scenario.engine().evaluate(scenario.getData(), plans.plan(scenario));
+    }
+
+    private static int parseTop(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null) return Integer.MAX_VALUE;
+        for (String param : query.split("&")) {
+            if (param.startsWith("top=")) {
+                try {
+                    int top = Integer.parseInt(param.substring(4));
+                    if (top > 0) return top;
+                } catch (NumberFormatException e) {
+                    // 按无效参数处理
+                }
+                throw new IllegalArgumentException("无效的top参数: " + param.substring(4));
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private String readBody(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(maxBody + 1);
+        if (bytes.length > maxBody) {
+            throw new BodyTooLargeException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+    }
+
+    static void appendResult(StringBuilder json, EvaluationResult result, int top) {
+        json.append("\"technologies\":").append(result.size()).append(",\"scores\":[");
+        for (int i = 0; i < result.size(); i++) {
+            if (i > 0) json.append(',');
+            Json.appendNumber(json, result.getScore(i));
+        }
+        json.append("],\"ranking\":[");
+        int[] ranking = top < result.size() ? result.topK(top) : result.getRanking();
+        for (int i = 0; i < ranking.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(ranking[i] + 1);
+        }
+        json.append(']');
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        errors.incrementAndGet();
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.appendString(json, message != null ? message : "未知错误");
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // 按内容缓存的综合权重方案（LRU）。键为指标体系文本加各判断矩阵的元素，
+    // 构造键的开销与判断矩阵大小成正比，远小于推导权重
+    static final class PlanCache {
+        private final int capacity;
+        private final Map<String, WeightPlan> plans;
+        private long hits;
+        private long misses;
+
+        PlanCache(int capacity) {
+            this.capacity = capacity;
+            this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, WeightPlan> eldest) {
+                    return size() > PlanCache.this.capacity;
+                }
+            };
+        }
+
+        WeightPlan plan(Scenario scenario) {
+            String key = key(scenario.getHierarchy());
+            synchronized (this) {
+                WeightPlan plan = plans.get(key);
+                if (plan != null) {
+                    hits++;
+                    return plan;
+                }
+                misses++;
+            }
+            // 在锁外推导，同一方案被并发请求重复推导时结果相同，后放入的覆盖先放入的
+            WeightPlan plan = scenario.plan();
+            synchronized (this) {
+                plans.put(key, plan);
+            }
+            return plan;
+        }
+
+        private static String key(IndicatorHierarchy hierarchy) {
+            double[][][] judgments = hierarchy.judgments();
+            StringBuilder sb = new StringBuilder(hierarchy.format(IndicatorHierarchy.matrixNames(judgments.length)));
+            for (double[][] matrix : judgments) {
+                sb.append('|');
+                for (double[] row : matrix) {
+                    sb.append(Arrays.toString(row));
+                }
+            }
+            return sb.toString();
+        }
+
+        synchronized void appendStats(StringBuilder json) {
+            json.append("{\"size\":").append(plans.size())
+                    .append(",\"capacity\":").append(capacity)
+                    .append(",\"hits\":").append(hits)
+                    .append(",\"misses\":").append(misses).append('}');
+        }
+    }
+
+    public static void main(String[] args) {
+        String host = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        int planCache = DEFAULT_PLAN_CACHE;
+        int maxBody = DEFAULT_MAX_BODY;
+        boolean usage = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--host") && i + 1 < args.length) {
+                    host = args[++i];
+                } else if (args[i].equals("--port") && i + 1 < args.length) {
+                    port = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--plans") && i + 1 < args.length) {
+                    planCache = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--max-body") && i + 1 < args.length) {
+                    int megabytes = Integer.parseInt(args[++i]);
+                    if (megabytes < 1 || megabytes > MAX_BODY_LIMIT_MB) {
+                        usage = true;
+                    }
+                    maxBody = megabytes << 20;
+                } else {
+                    usage = true;
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage = true;
+        }
+        if (usage) {
+            System.err.println("用法: java Main --serve [--host 地址] [--port 端口] [--plans 缓存方案数] [--max-body 请求体上限MB(1-" + MAX_BODY_LIMIT_MB + ")]");
+            System.exit(2);
+        }
+
+        // 响应头和响应体分两次写出，不关闭Nagle算法时与客户端的延迟确认叠加，每个请求多出约40ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            EvaluationServer server = new EvaluationServer(new InetSocketAddress(host, port), planCache, maxBody);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            InetSocketAddress address = server.getAddress();
+            System.err.println("评估服务已启动: http://" + address.getHostString() + ":" + address.getPort()
+                    + " (线程: " + threadModel() + ", 计算核: " + EvaluationEngine.kernelBackend() + ")");
+        } catch (IOException e) {
+            System.err.println("评估服务启动失败: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package evaluation;
+
+// 按列存储的float矩阵，布局与ColumnMatrix相同，内存和带宽减半
+//
+// 指标取值多为低精度的分值（整数或0.1步长），按float保存的相对误差约6e-8。计算时元素读出后转为double，
+// 列统计量、偏离度、动态权值和效能值的累加都用double（见ColumnKernels的float版本），
+// 误差对效能值和排名的影响可用PrecisionReport与double路径对照。
+public final class FloatColumnMatrix {
+    private final int rows;
+    private final int cols;
+    private final float[] values;
+
+    public FloatColumnMatrix(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.values = new float[Math.multiplyExact(rows, cols)];
+    }
+
+    // 由按行存储的二维数组（每行一个技术）构造，数值舍入为float
+    public static FloatColumnMatrix fromRows(double[][] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.TRANSPOSE);
+        int rows = data.length;
+        int cols = data[0].length;
+        FloatColumnMatrix m = new FloatColumnMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            double[] row = data[i];
+            if (row.length != cols) {
+                throw new IllegalArgumentException("第" + (i + 1) + "行列数(" + row.length + ")与首行(" + cols + ")不一致");
+            }
+            for (int j = 0; j < cols; j++) {
+                m.values[j * rows + i] = (float) row[j];
+            }
+        }
+        timer.stop(rows);
+        return m;
+    }
+
+    public static FloatColumnMatrix of(ColumnMatrix data) {
+        FloatColumnMatrix m = new FloatColumnMatrix(data.rows(), data.cols());
+        double[] v = data.array();
+        for (int j = 0; j < data.cols(); j++) {
+            int base = data.offset(j);
+            int target = m.offset(j);
+            for (int i = 0; i < data.rows(); i++) {
+                m.values[target + i] = (float) v[base + i];
+            }
+        }
+        return m;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public double get(int i, int j) {
+        return values[j * rows + i];
+    }
+
+    public void set(int i, int j, double value) {
+        values[j * rows + i] = (float) value;
+    }
+
+    // 第j列在底层数组中的起始下标
+    public int offset(int j) {
+        return j * rows;
+    }
+
+    // 底层数组，供计算核直接按列访问
+    public float[] array() {
+        return values;
+    }
+}
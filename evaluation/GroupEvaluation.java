@@ -0,0 +1,256 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// 多专家群组评估：M位专家各给出一套判断矩阵（结构与指标体系相同），分别评分并汇总为共识排名
+//
+// 汇总方式：
+//   WEIGHTS    各专家的综合权重按专家权重加权平均
+//   JUDGMENTS  各判断矩阵按专家权重逐元素加权平均后再推导权重（互补判断矩阵的加权平均仍互补）
+// 归一化矩阵A与列均值不依赖权重，对所有专家只计算一次；各专家和共识的评分核在线程池中并行运行。
+//
+// 用法: java Main --group [--mode weights|judgments] [--expert-weights 1,2,1] [--parallel 并行度] 场景文件 专家文件...
+// 场景文件提供数据矩阵、指标体系和偏离度参数；每个专家文件为场景格式（可以没有[data]），
+// 判断矩阵按先序命名为[R1]..[Rk]（固定体系即R1..R8），阶数必须与场景的指标体系一致。
+public class GroupEvaluation {
+
+    public enum Aggregation {
+        WEIGHTS("按权重汇总"),
+        JUDGMENTS("按判断矩阵汇总");
+
+        private final String label;
+
+        Aggregation(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private final EvaluationEngine engine;
+    private final int parallelism;
+    // 调用方的线程池，为null时每次评估创建专用线程池
+    private final ForkJoinPool pool;
+
+    public GroupEvaluation(EvaluationEngine engine, int parallelism) {
+        this.engine = engine;
+        this.parallelism = parallelism;
+        this.pool = null;
+    }
+
+    // 使用调用方的线程池，评估结束后不关闭
+    public GroupEvaluation(EvaluationEngine engine, ForkJoinPool pool) {
+        this.engine = engine;
+        this.parallelism = pool.getParallelism();
+        this.pool = pool;
+    }
+
+    // expertJudgments[m]为第m位专家的判断矩阵（先序），expertWeights为专家权重（非负，内部归一化），
+    // 为null时等权
+    public GroupResult run(double[][] data, IndicatorHierarchy hierarchy, String[] names,
+                           double[][][][] expertJudgments, double[] expertWeights, Aggregation mode) {
+        return run(data, hierarchy, names, expertJudgments, expertWeights, mode, ProgressListener.NONE);
+    }
+
+    // 带进度回调的评估；线程被中断时在阶段之间抛出CancellationException
+    public GroupResult run(double[][] data, IndicatorHierarchy hierarchy, String[] names,
+                           double[][][][] expertJudgments, double[] expertWeights, Aggregation mode,
+                           ProgressListener listener) {
+        int experts = expertJudgments.length;
+        if (experts == 0) {
+            throw new IllegalArgumentException("至少需要一位专家的判断矩阵");
+        }
+        if (names.length != experts) {
+            throw new IllegalArgumentException("专家名称个数(" + names.length + ")与专家人数(" + experts + ")不一致");
+        }
+        double[] lambda = normalizeExpertWeights(expertWeights, experts);
+
+        // 各专家的综合权重
+        double[][] weights = new double[experts + 1][];
+        for (int m = 0; m < experts; m++) {
+            try {
+                weights[m] = hierarchy.withJudgments(expertJudgments[m]).compile().weightsArray();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(names[m] + ": " + e.getMessage(), e);
+            }
+            EvaluationEngine.checkpoint(listener, 30 * (m + 1) / experts);
+        }
+
+        // 共识权重放在最后一个
+        if (mode == Aggregation.WEIGHTS) {
+            double[] consensus = new double[weights[0].length];
+            for (int m = 0; m < experts; m++) {
+                for (int j = 0; j < consensus.length; j++) {
+                    consensus[j] += lambda[m] * weights[m][j];
+                }
+            }
+            weights[experts] = consensus;
+        } else {
+            weights[experts] = hierarchy.withJudgments(aggregateJudgments(expertJudgments, lambda))
+                    .compile().weightsArray();
+        }
+
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        ColumnMatrix A = engine.normalize(ColumnMatrix.fromRows(data));
+        if (A.cols() != weights[0].length) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + A.cols() + ")与综合权重个数(" + weights[0].length + ")不一致");
+        }
+        double[] means = new double[A.cols()];
+        ScoringKernel.columnMeans(A, means);
+        EvaluationEngine.checkpoint(listener, 50);
+
+        double[][] scores = new double[experts + 1][];
+        ForkJoinPool executor = pool != null ? pool
+                : new ForkJoinPool(Math.max(1, Math.min(parallelism, experts + 1)));
+        try {
+            List<Callable<double[]>> tasks = new ArrayList<>();
+            for (double[] w : weights) {
+                tasks.add(() -> {
+                    double[] out = new double[A.rows()];
+                    ScoringKernel.score(A, 0, A.rows(), means, w, engine.alpha(), engine.beta(), out);
+                    return out;
+                });
+            }
+            List<Future<double[]>> futures = executor.invokeAll(tasks);
+            for (int m = 0; m <= experts; m++) {
+                scores[m] = futures.get(m).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("计算已取消");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("群组评估出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (executor != pool) executor.shutdown();
+        }
+        PipelineMetrics.addRows((long) A.rows() * (experts + 1));
+        EvaluationEngine.checkpoint(listener, 100);
+
+        double[][] expertScores = new double[experts][];
+        double[][] expertWeightVectors = new double[experts][];
+        System.arraycopy(scores, 0, expertScores, 0, experts);
+        System.arraycopy(weights, 0, expertWeightVectors, 0, experts);
+        return new GroupResult(names.clone(), lambda, mode, expertWeightVectors, weights[experts].clone(),
+                expertScores, scores[experts]);
+    }
+
+    static double[] normalizeExpertWeights(double[] expertWeights, int experts) {
+        double[] lambda = new double[experts];
+        if (expertWeights == null) {
+            Arrays.fill(lambda, 1.0 / experts);
+            return lambda;
+        }
+        if (expertWeights.length != experts) {
+            throw new IllegalArgumentException("专家权重个数(" + expertWeights.length + ")与专家人数(" + experts + ")不一致");
+        }
+        double sum = 0;
+        for (double w : expertWeights) {
+            if (!(w >= 0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException("专家权重必须为非负数: " + w);
+            }
+            sum += w;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("专家权重之和必须为正数");
+        }
+        for (int m = 0; m < experts; m++) {
+            lambda[m] = expertWeights[m] / sum;
+        }
+        return lambda;
+    }
+
+    // 逐元素加权平均；未填写的元素先按互补关系补全
+    static double[][][] aggregateJudgments(double[][][][] expertJudgments, double[] lambda) {
+        int k = expertJudgments[0].length;
+        double[][][] result = new double[k][][];
+        for (int g = 0; g < k; g++) {
+            int n = expertJudgments[0][g].length;
+            double[][] sum = new double[n][n];
+            for (int m = 0; m < expertJudgments.length; m++) {
+                if (expertJudgments[m].length != k) {
+                    throw new IllegalArgumentException(
+                            "第" + (m + 1) + "位专家的判断矩阵个数应为" + k + "，实际为" + expertJudgments[m].length);
+                }
+                if (expertJudgments[m][g].length != n) {
+                    throw new IllegalArgumentException(
+                            "第" + (m + 1) + "位专家的第" + (g + 1) + "个判断矩阵阶数应为" + n
+                                    + "，实际为" + expertJudgments[m][g].length);
+                }
+                double[][] R = EvaluationEngine.completeMatrix(expertJudgments[m][g]);
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        sum[i][j] += lambda[m] * R[i][j];
+                    }
+                }
+            }
+            result[g] = sum;
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        Aggregation mode = Aggregation.WEIGHTS;
+        double[] expertWeights = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+        boolean usage = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--mode") && i + 1 < args.length) {
+                    mode = Aggregation.valueOf(args[++i].toUpperCase());
+                } else if (args[i].equals("--expert-weights") && i + 1 < args.length) {
+                    String[] parts = args[++i].split(",");
+                    expertWeights = new double[parts.length];
+                    for (int m = 0; m < parts.length; m++) {
+                        expertWeights[m] = Double.parseDouble(parts[m].trim());
+                    }
+                } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                    parallelism = Integer.parseInt(args[++i]);
+                } else {
+                    files.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage = true;
+        }
+        if (usage || files.size() < 2) {
+            System.err.println("用法: java Main --group [--mode weights|judgments] [--expert-weights 1,2,1] [--parallel 并行度] 场景文件 专家文件...");
+            System.exit(2);
+        }
+
+        try {
+            Scenario scenario = Scenario.open(files.get(0));
+            int experts = files.size() - 1;
+            String[] names = new String[experts];
+            double[][][][] judgments = new double[experts][][][];
+            for (int m = 0; m < experts; m++) {
+                Path file = files.get(m + 1);
+                names[m] = file.getFileName().toString();
+                judgments[m] = Scenario.readJudgments(file, scenario.getHierarchy());
+            }
+            long start = System.nanoTime();
+            GroupResult result = new GroupEvaluation(scenario.engine(), parallelism)
+                    .run(scenario.getData(), scenario.getHierarchy(), names, judgments, expertWeights, mode);
+            System.out.print(result.formatReport());
+            System.err.printf("%d位专家用时 %.1f ms%n", experts, (System.nanoTime() - start) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("群组评估出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package evaluation;
+
+import java.text.DecimalFormat;
+
+// 群组评估结果：各专家和共识的效能值、排名，以及各专家排名与共识排名的一致程度
+public class GroupResult {
+    private final String[] names;
+    private final double[] expertWeights;
+    private final GroupEvaluation.Aggregation mode;
+    private final double[][] weights;
+    private final double[] consensusWeights;
+    private final double[][] scores;
+    private final double[] consensusScores;
+    private final int[][] rankings;
+    private final int[] consensusRanking;
+
+    GroupResult(String[] names, double[] expertWeights, GroupEvaluation.Aggregation mode, double[][] weights,
+                double[] consensusWeights, double[][] scores, double[] consensusScores) {
+        this.names = names;
+        this.expertWeights = expertWeights;
+        this.mode = mode;
+        this.weights = weights;
+        this.consensusWeights = consensusWeights;
+        this.scores = scores;
+        this.consensusScores = consensusScores;
+        this.rankings = new int[scores.length][];
+        for (int m = 0; m < scores.length; m++) {
+            rankings[m] = Ranking.sortDescending(scores[m]);
+        }
+        this.consensusRanking = Ranking.sortDescending(consensusScores);
+    }
+
+    public int experts() {
+        return names.length;
+    }
+
+    public int size() {
+        return consensusScores.length;
+    }
+
+    public String expertName(int m) {
+        return names[m];
+    }
+
+    // 归一化后的专家权重
+    public double expertWeight(int m) {
+        return expertWeights[m];
+    }
+
+    public GroupEvaluation.Aggregation getMode() {
+        return mode;
+    }
+
+    // 第m位专家的综合权重（按数据列排列）
+    public double[] getWeights(int m) {
+        return weights[m].clone();
+    }
+
+    public double[] getConsensusWeights() {
+        return consensusWeights.clone();
+    }
+
+    public EvaluationResult expertResult(int m) {
+        return new EvaluationResult(scores[m].clone());
+    }
+
+    public EvaluationResult consensusResult() {
+        return new EvaluationResult(consensusScores.clone());
+    }
+
+    // 技术technology（从0开始）在第m位专家排名中的名次（从1开始）
+    public int expertRank(int m, int technology) {
+        return rankOf(rankings[m], technology);
+    }
+
+    public int consensusRank(int technology) {
+        return rankOf(consensusRanking, technology);
+    }
+
+    private static int rankOf(int[] ranking, int technology) {
+        for (int r = 0; r < ranking.length; r++) {
+            if (ranking[r] == technology) return r + 1;
+        }
+        throw new IllegalArgumentException("无效的技术下标: " + technology);
+    }
+
+    // 第m位专家排名与共识排名的Spearman等级相关系数（无并列名次），只有一项技术时为1
+    public double spearman(int m) {
+        int n = size();
+        if (n < 2) return 1;
+        int[] expertRanks = ranks(rankings[m]);
+        int[] consensusRanks = ranks(consensusRanking);
+        double d2 = 0;
+        for (int t = 0; t < n; t++) {
+            double d = expertRanks[t] - consensusRanks[t];
+            d2 += d * d;
+        }
+        return 1 - 6 * d2 / ((double) n * ((double) n * n - 1));
+    }
+
+    // 由排名（技术下标序列）得到各技术的名次
+    private static int[] ranks(int[] ranking) {
+        int[] ranks = new int[ranking.length];
+        for (int r = 0; r < ranking.length; r++) {
+            ranks[ranking[r]] = r;
+        }
+        return ranks;
+    }
+
+    public String formatReport() {
+        return formatReport(Integer.MAX_VALUE);
+    }
+
+    // 共识排名只列出前limit名
+    public String formatReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        DecimalFormat df = new DecimalFormat("0.0000");
+        int n = size();
+        int[][] expertRanks = new int[names.length][];
+        for (int m = 0; m < names.length; m++) {
+            expertRanks[m] = ranks(rankings[m]);
+        }
+
+        sb.append("=== 专家组评估 (").append(names.length).append("位专家, ").append(mode.label()).append(") ===\n\n");
+        for (int m = 0; m < names.length; m++) {
+            sb.append(String.format("专家%d: %s | 权重: %s | 与共识排名的Spearman相关系数: %s\n",
+                    m + 1, names[m], df.format(expertWeights[m]), df.format(spearman(m))));
+        }
+
+        sb.append("\n共识排名（各专家名次按上面的顺序列出）:\n");
+        int shown = Math.min(n, limit);
+        for (int r = 0; r < shown; r++) {
+            int t = consensusRanking[r];
+            sb.append(String.format("第%d名: 装备%-2d | 效能值: %s | 各专家名次:", r + 1, t + 1, df.format(consensusScores[t])));
+            for (int m = 0; m < names.length; m++) {
+                sb.append(' ').append(expertRanks[m][t] + 1);
+            }
+            sb.append('\n');
+        }
+        if (shown < n) {
+            sb.append("...（共").append(n).append("项，仅显示前").append(shown).append("名）\n");
+        }
+        return sb.toString();
+    }
+}
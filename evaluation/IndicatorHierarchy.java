@@ -0,0 +1,398 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// 指标体系：任意层数的分组树，每个分组带一个判断矩阵（阶数等于子节点个数），叶子为指标，带正负性和数据列
+//
+// compile()把树编译为扁平的WeightPlan，之后的评分与固定的两级体系开销相同。
+// 分组按先序编号（根为0），judgments()的顺序与之一致，对固定体系即R1..R8。
+//
+// 场景文件中的文本格式（[hierarchy]段落，按缩进表示层次）：
+//   总体 [R1]
+//     作战能力 [R2]
+//       + 探测距离
+//       - 反应时间 @7
+//     保障能力
+//       + 可靠性
+// 分组行为"名称 [矩阵段落名]"，省略段落名时判断矩阵全部填充0.5；指标行以+（正指标）、-（负指标）
+// 或~（不参与归一化，结果为0）开头，可用"@列号"（从1开始）指定数据列，否则按出现顺序依次对应。
+public final class IndicatorHierarchy {
+
+    public static final int POSITIVE = 1;
+    public static final int NEGATIVE = -1;
+    public static final int IGNORED = 0;
+
+    // 树节点：分组（有子节点和判断矩阵）或指标（叶子）
+    public static final class Node {
+        private final String name;
+        private final int polarity;
+        private final int column;
+        private final double[][] judgment;
+        private final List<Node> children;
+
+        private Node(String name, int polarity, int column, double[][] judgment, List<Node> children) {
+            this.name = name;
+            this.polarity = polarity;
+            this.column = column;
+            this.judgment = judgment;
+            this.children = children;
+        }
+
+        // 指标，数据列按出现顺序分配
+        public static Node indicator(String name, int polarity) {
+            return indicator(name, polarity, -1);
+        }
+
+        // 指标，column为数据列下标（从0开始）
+        public static Node indicator(String name, int polarity, int column) {
+            if (polarity < NEGATIVE || polarity > POSITIVE) {
+                throw new IllegalArgumentException("指标 " + name + " 的正负性无效: " + polarity);
+            }
+            return new Node(name, polarity, column, null, Collections.emptyList());
+        }
+
+        // 分组，judgment为null时全部填充0.5
+        public static Node group(String name, double[][] judgment, List<Node> children) {
+            if (children.isEmpty()) {
+                throw new IllegalArgumentException("分组 " + name + " 没有子节点");
+            }
+            if (judgment == null) {
+                judgment = EvaluationEngine.createFullMatrix(children.size(), 0.5);
+            }
+            if (judgment.length != children.size()) {
+                throw new IllegalArgumentException("分组 " + name + " 的判断矩阵阶数(" + judgment.length
+                        + ")与子节点个数(" + children.size() + ")不一致");
+            }
+            for (double[] row : judgment) {
+                if (row.length != judgment.length) {
+                    throw new IllegalArgumentException("分组 " + name + " 的判断矩阵不是方阵");
+                }
+            }
+            return new Node(name, IGNORED, -1, judgment, List.copyOf(children));
+        }
+
+        public static Node group(String name, double[][] judgment, Node... children) {
+            return group(name, judgment, Arrays.asList(children));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isGroup() {
+            return judgment != null;
+        }
+
+        public int getPolarity() {
+            return polarity;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+    }
+
+    private final Node root;
+    // 按先序排列的分组及其判断矩阵
+    private final List<Node> groups = new ArrayList<>();
+    private final double[][][] judgments;
+    // 编译结果：见WeightPlan
+    private final int[] parent;
+    private final int[] slot;
+    private final int[] leafGroup;
+    private final int[] leafSlot;
+    private final int[] leafColumn;
+    // 按数据列排列的指标名称和正负性
+    private final String[] names;
+    private final int[] polarity;
+
+    public IndicatorHierarchy(Node root) {
+        if (!root.isGroup()) {
+            throw new IllegalArgumentException("指标体系的根必须是分组");
+        }
+        this.root = root;
+        List<int[]> groupLinks = new ArrayList<>();
+        List<int[]> leaves = new ArrayList<>();
+        List<Node> leafNodes = new ArrayList<>();
+        collect(root, -1, 0, groupLinks, leaves, leafNodes);
+
+        int groupCount = groups.size();
+        judgments = new double[groupCount][][];
+        parent = new int[groupCount];
+        slot = new int[groupCount];
+        for (int k = 0; k < groupCount; k++) {
+            judgments[k] = groups.get(k).judgment;
+            parent[k] = groupLinks.get(k)[0];
+            slot[k] = groupLinks.get(k)[1];
+        }
+
+        int n = leaves.size();
+        leafGroup = new int[n];
+        leafSlot = new int[n];
+        leafColumn = new int[n];
+        names = new String[n];
+        polarity = new int[n];
+        for (int i = 0; i < n; i++) {
+            Node leaf = leafNodes.get(i);
+            int column = leaf.column >= 0 ? leaf.column : i;
+            if (column >= n || names[column] != null) {
+                throw new IllegalArgumentException("指标 " + leaf.name + " 的数据列" + (column + 1)
+                        + (column >= n ? "超出指标个数" + n : "与指标 " + names[column] + " 重复"));
+            }
+            leafGroup[i] = leaves.get(i)[0];
+            leafSlot[i] = leaves.get(i)[1];
+            leafColumn[i] = column;
+            names[column] = leaf.name;
+            polarity[column] = leaf.polarity;
+        }
+    }
+
+    private void collect(Node node, int parentGroup, int position, List<int[]> groupLinks,
+                         List<int[]> leaves, List<Node> leafNodes) {
+        if (!node.isGroup()) {
+            leaves.add(new int[]{parentGroup, position});
+            leafNodes.add(node);
+            return;
+        }
+        int k = groups.size();
+        groups.add(node);
+        groupLinks.add(new int[]{parentGroup, position});
+        for (int c = 0; c < node.children.size(); c++) {
+            collect(node.children.get(c), k, c, groupLinks, leaves, leafNodes);
+        }
+    }
+
+    // 固定的两级体系：judgments[0]为R1，其余依次为R2..R8，指标按组依次对应数据列；
+    // 正负性取自pos、neg（数据列下标，同时出现时按负指标处理，与normalizeData一致）
+    public static IndicatorHierarchy twoLevel(double[][][] judgments, int[] pos, int[] neg) {
+        if (judgments.length < 2) {
+            throw new IllegalArgumentException("至少需要一级判断矩阵和一个二级判断矩阵");
+        }
+        int total = 0;
+        for (int k = 1; k < judgments.length; k++) {
+            total += judgments[k].length;
+        }
+        int[] kinds = ColumnStats.polarity(total, pos, neg);
+        List<Node> groups = new ArrayList<>();
+        int column = 0;
+        for (int k = 1; k < judgments.length; k++) {
+            List<Node> indicators = new ArrayList<>();
+            for (int s = 0; s < judgments[k].length; s++, column++) {
+                indicators.add(Node.indicator("指标" + (column + 1), kinds[column]));
+            }
+            groups.add(Node.group(twoLevelName(k), judgments[k], indicators));
+        }
+        return new IndicatorHierarchy(Node.group(twoLevelName(0), judgments[0], groups));
+    }
+
+    private static String twoLevelName(int k) {
+        return k < Scenario.JUDGMENT_NAMES.length ? Scenario.JUDGMENT_NAMES[k] : "R" + (k + 1);
+    }
+
+    // 编译为扁平的综合权重方案，各判断矩阵只推导一次
+    public WeightPlan compile() {
+        return new WeightPlan(parent, slot, leafGroup, leafSlot, leafColumn, WeightPlan.deriveAll(judgments));
+    }
+
+    // 结构不变，替换全部判断矩阵（先序），阶数必须与原来一致
+    public IndicatorHierarchy withJudgments(double[][][] newJudgments) {
+        if (newJudgments.length != judgments.length) {
+            throw new IllegalArgumentException(
+                    "判断矩阵个数应为" + judgments.length + "，实际为" + newJudgments.length);
+        }
+        int[] next = {0};
+        return new IndicatorHierarchy(rebuild(root, newJudgments, next));
+    }
+
+    private static Node rebuild(Node node, double[][][] newJudgments, int[] next) {
+        if (!node.isGroup()) return node;
+        double[][] judgment = newJudgments[next[0]++];
+        List<Node> children = new ArrayList<>();
+        for (Node child : node.children) {
+            children.add(rebuild(child, newJudgments, next));
+        }
+        return Node.group(node.name, judgment, children);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    // 指标个数，即数据矩阵的列数
+    public int size() {
+        return names.length;
+    }
+
+    // 分组个数，即判断矩阵个数
+    public int groupCount() {
+        return judgments.length;
+    }
+
+    // 第k个分组（先序）的名称
+    public String groupName(int k) {
+        return groups.get(k).name;
+    }
+
+    // 各分组的判断矩阵（先序），调用方不得修改
+    public double[][][] judgments() {
+        return judgments;
+    }
+
+    // 第j列数据对应的指标名称
+    public String indicatorName(int j) {
+        return names[j];
+    }
+
+    // 正指标列下标
+    public int[] posIndicators() {
+        return columns(POSITIVE);
+    }
+
+    // 负指标列下标
+    public int[] negIndicators() {
+        return columns(NEGATIVE);
+    }
+
+    private int[] columns(int kind) {
+        return IntStream.range(0, polarity.length).filter(j -> polarity[j] == kind).toArray();
+    }
+
+    // 是否与同样判断矩阵阶数的twoLevel体系结构相同（指标依次对应数据列）
+    public boolean isTwoLevel() {
+        if (parent.length < 2 || judgments[0].length != parent.length - 1) return false;
+        for (int k = 1; k < parent.length; k++) {
+            if (parent[k] != 0) return false;
+        }
+        for (int i = 0; i < leafColumn.length; i++) {
+            if (leafColumn[i] != i || leafGroup[i] == 0) return false;
+        }
+        return true;
+    }
+
+    // 按先序依次命名的判断矩阵R1..Rk，用于快照和日志中的指标体系定义
+    public static String[] matrixNames(int k) {
+        String[] names = new String[k];
+        for (int m = 0; m < k; m++) {
+            names[m] = "R" + (m + 1);
+        }
+        return names;
+    }
+
+    // 按[hierarchy]段落的格式输出，分组k的判断矩阵引用名为matrixNames[k]
+    public String format(String[] matrixNames) {
+        StringBuilder sb = new StringBuilder();
+        format(root, 0, matrixNames, new int[]{0}, new int[]{0}, sb);
+        return sb.toString();
+    }
+
+    private void format(Node node, int depth, String[] matrixNames, int[] nextGroup, int[] nextLeaf,
+                        StringBuilder sb) {
+        sb.append("  ".repeat(depth));
+        if (!node.isGroup()) {
+            int i = nextLeaf[0]++;
+            sb.append(node.polarity > 0 ? '+' : node.polarity < 0 ? '-' : '~').append(' ').append(node.name);
+            if (leafColumn[i] != i) sb.append(" @").append(leafColumn[i] + 1);
+            sb.append('\n');
+            return;
+        }
+        sb.append(node.name).append(" [").append(matrixNames[nextGroup[0]++]).append("]\n");
+        for (Node child : node.children) {
+            format(child, depth + 1, matrixNames, nextGroup, nextLeaf, sb);
+        }
+    }
+
+    // 解析[hierarchy]段落，lines为未去除缩进的各行（已去掉空行和注释），lineNumbers为对应的行号；
+    // 分组引用的判断矩阵从matrices中按段落名查找
+    public static IndicatorHierarchy parse(List<String> lines, int[] lineNumbers, Map<String, double[][]> matrices,
+                                           Path file) throws IOException {
+        if (lines.isEmpty()) {
+            throw new IOException(file + ": [hierarchy]段落为空");
+        }
+        int[] next = {0};
+        Node root;
+        try {
+            root = parseNode(lines, lineNumbers, next, indent(lines.get(0)), matrices, file);
+            if (next[0] < lines.size()) {
+                throw new IOException(file + " 第" + lineNumbers[next[0]] + "行: 指标体系只能有一个根分组");
+            }
+            return new IndicatorHierarchy(root);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    private static Node parseNode(List<String> lines, int[] lineNumbers, int[] next, int depth,
+                                  Map<String, double[][]> matrices, Path file) throws IOException {
+        int index = next[0]++;
+        String line = lines.get(index).trim();
+        int lineNo = lineNumbers[index];
+        char mark = line.charAt(0);
+        if (mark == '+' || mark == '-' || mark == '~') {
+            String name = line.substring(1).trim();
+            int column = -1;
+            int at = name.lastIndexOf('@');
+            if (at >= 0) {
+                try {
+                    column = Integer.parseInt(name.substring(at + 1).trim()) - 1;
+                } catch (NumberFormatException e) {
+                    column = -1;
+                }
+                if (column < 0) {
+                    throw new IOException(file + " 第" + lineNo + "行: 无效的数据列 " + name.substring(at));
+                }
+                name = name.substring(0, at).trim();
+            }
+            return Node.indicator(name, mark == '+' ? POSITIVE : mark == '-' ? NEGATIVE : IGNORED, column);
+        }
+
+        String name = line;
+        double[][] judgment = null;
+        int open = line.lastIndexOf('[');
+        if (open > 0 && line.endsWith("]")) {
+            String ref = line.substring(open + 1, line.length() - 1).trim();
+            judgment = matrices.get(ref);
+            if (judgment == null) {
+                throw new IOException(file + " 第" + lineNo + "行: 找不到判断矩阵段落 [" + ref + "]");
+            }
+            name = line.substring(0, open).trim();
+        }
+        List<Node> children = new ArrayList<>();
+        int childDepth = -1;
+        while (next[0] < lines.size()) {
+            int d = indent(lines.get(next[0]));
+            if (d <= depth) break;
+            if (childDepth < 0) childDepth = d;
+            if (d != childDepth) {
+                throw new IOException(file + " 第" + lineNumbers[next[0]] + "行: 缩进与同级节点不一致");
+            }
+            children.add(parseNode(lines, lineNumbers, next, d, matrices, file));
+        }
+        if (children.isEmpty()) {
+            throw new IOException(file + " 第" + lineNo + "行: 分组 " + name + " 没有子节点（指标行应以+、-或~开头）");
+        }
+        try {
+            return Node.group(name, judgment, children);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + " 第" + lineNo + "行: " + e.getMessage());
+        }
+    }
+
+    // 缩进宽度，制表符按4个空格计
+    private static int indent(String line) {
+        int width = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') width++;
+            else if (c == '\t') width += 4;
+            else break;
+        }
+        return width;
+    }
+}
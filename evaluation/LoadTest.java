@@ -0,0 +1,167 @@
+package evaluation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 评估服务的本地压测：concurrency个客户端线程各自同步发送请求，统计吞吐量和延迟分位数
+//
+// 用法: java Main --loadtest [--requests 总请求数] [--concurrency 并发数] [--warmup 预热请求数] URL 场景文件
+// 例如 java Main --loadtest --requests 20000 --concurrency 32 http://127.0.0.1:8080/evaluate examples/sample-scenario.txt
+// 预热请求不计入统计。延迟为客户端测得的往返时间，包含请求体传输和JSON响应的接收
+public class LoadTest {
+
+    private final HttpClient client;
+    private final HttpRequest request;
+
+    public LoadTest(URI uri, byte[] body) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    // 发送requests个请求，返回延迟分布和失败数（非200响应或连接错误）
+    public Report run(int requests, int concurrency) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            Future<?>[] futures = new Future<?>[concurrency];
+            for (int t = 0; t < concurrency; t++) {
+                futures[t] = pool.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) failed.incrementAndGet();
+                        } catch (IOException e) {
+                            failed.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                });
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Report(latencies, System.nanoTime() - start, failed.get());
+    }
+
+    public static final class Report {
+        private final long[] sorted;
+        private final long elapsedNanos;
+        private final int failed;
+
+        Report(long[] latencies, long elapsedNanos, int failed) {
+            this.sorted = latencies.clone();
+            Arrays.sort(sorted);
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+
+        public int requests() {
+            return sorted.length;
+        }
+
+        public int failed() {
+            return failed;
+        }
+
+        // 每秒完成的请求数
+        public double throughput() {
+            return sorted.length / (elapsedNanos / 1e9);
+        }
+
+        // 第p分位（0 < p <= 100）的延迟，毫秒，最近秩法
+        public double percentileMillis(double p) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1e6;
+        }
+
+        public String format() {
+            return String.format("请求数: %d, 失败: %d, 用时: %.2f s%n"
+                            + "吞吐量: %.1f 请求/秒%n"
+                            + "延迟(ms): p50 %.3f | p90 %.3f | p99 %.3f | p99.9 %.3f | 最大 %.3f%n",
+                    sorted.length, failed, elapsedNanos / 1e9, throughput(),
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                    percentileMillis(100));
+        }
+    }
+
+    public static void main(String[] args) {
+        int requests = 10000;
+        int concurrency = 16;
+        int warmup = 1000;
+        String url = null;
+        String file = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--requests") && i + 1 < args.length) {
+                    requests = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--concurrency") && i + 1 < args.length) {
+                    concurrency = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--warmup") && i + 1 < args.length) {
+                    warmup = Integer.parseInt(args[++i]);
+                } else if (url == null) {
+                    url = args[i];
+                } else {
+                    file = args[i];
+                }
+            }
+        } catch (NumberFormatException e) {
+            file = null;
+        }
+        if (file == null || requests <= 0 || concurrency <= 0 || warmup < 0) {
+            System.err.println("用法: java Main --loadtest [--requests 总请求数] [--concurrency 并发数] [--warmup 预热请求数] URL 场景文件");
+            System.exit(2);
+        }
+
+        try {
+            LoadTest test = new LoadTest(URI.create(url), Files.readAllBytes(Paths.get(file)));
+            if (warmup > 0) {
+                test.run(warmup, concurrency);
+            }
+            Report report = test.run(requests, concurrency);
+            System.out.print(report.format());
+            if (report.failed() > 0) {
+                System.exit(1);
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("压测出错: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+}
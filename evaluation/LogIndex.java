@@ -0,0 +1,574 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// 历史评估日志（效能评估记录_*.txt）的索引与重放
+//
+// 各日志文件整体内存映射后并行扫描，按字节匹配记录头、数据矩阵规模和排行榜，不解码全文；
+// 索引按时间排序，可按时间范围和技术查询。重新载入某条记录时才解码该记录的文本，
+// 还原数据矩阵、判断矩阵和偏离度参数，可用当前引擎重新计算并与日志中的排名对照。
+// 日志中的数据和判断矩阵按完整精度记录（较早的日志保留2位小数，重放时按舍入后的数据计算），
+// 效能值保留4位小数，重新计算的效能值只能近似比较。
+//
+// 用法: java Main --logs [--parallel 并行度] [--from 时间] [--to 时间] [--tech 编号]
+//                      [--replay 序号] [--export 序号 快照文件] [--check] 日志文件或目录...
+// 时间写作 yyyy-MM-dd 或 "yyyy-MM-dd HH:mm:ss"，序号为列表中的序号（从1开始）
+public class LogIndex {
+
+    private static final byte[] RECORD = bytes("=== 计算记录 [");
+    private static final byte[] DATA = bytes("【技术评价数据矩阵】 (");
+    private static final byte[] TIMES = bytes("×");
+    private static final byte[] DATA_TRUNCATED = bytes("行，仅记录前");
+    // 数据行超过100列时以"..."结尾，只记录了前100列
+    private static final byte[] DATA_ELIDED = bytes("...");
+    private static final byte[] SECTION = bytes("【");
+    private static final byte[] RANKING = bytes("=== 装备效能排行榜 ===");
+    private static final byte[] RANK = bytes("第");
+    private static final byte[] TECH = bytes("名: 装备");
+    private static final byte[] SCORE = bytes("| 效能值: ");
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<LogRecord> records;
+
+    private LogIndex(List<LogRecord> records) {
+        this.records = records;
+    }
+
+    // 扫描日志文件建立索引，各文件并行处理
+    public static LogIndex build(List<Path> files, int parallelism) throws IOException {
+        List<LogRecord> all = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, files.size())));
+        try {
+            List<Callable<List<LogRecord>>> tasks = new ArrayList<>();
+            for (Path file : files) {
+                tasks.add(() -> scan(file));
+            }
+            for (Future<List<LogRecord>> f : pool.invokeAll(tasks)) {
+                all.addAll(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("扫描日志被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("扫描日志出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        all.sort(Comparator.comparing(LogRecord::getTime)
+                .thenComparing(LogRecord::getFile)
+                .thenComparingLong(LogRecord::getOffset));
+        return new LogIndex(all);
+    }
+
+    // 按时间排序的全部记录
+    public List<LogRecord> records() {
+        return records;
+    }
+
+    // 时间在[from, to]内的记录，参数为null时不限
+    public List<LogRecord> between(LocalDateTime from, LocalDateTime to) {
+        int lo = from == null ? 0 : lowerBound(from, false);
+        int hi = to == null ? records.size() : lowerBound(to, true);
+        return records.subList(lo, Math.max(lo, hi));
+    }
+
+    // 日志排行榜中出现了该技术（下标从0开始）的记录
+    public List<LogRecord> history(int technology, List<LogRecord> within) {
+        List<LogRecord> result = new ArrayList<>();
+        for (LogRecord r : within) {
+            if (r.rankOf(technology) >= 0) result.add(r);
+        }
+        return result;
+    }
+
+    // 第一个时间不早于（inclusive为true时晚于）t的记录下标
+    private int lowerBound(LocalDateTime t, boolean inclusive) {
+        int lo = 0, hi = records.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = records.get(mid).getTime().compareTo(t);
+            if (c < 0 || (inclusive && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // 扫描单个日志文件
+    static List<LogRecord> scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + ": 日志文件超过2GB，无法映射");
+            }
+            Cursor c = new Cursor(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), (int) size);
+            List<LogRecord> records = new ArrayList<>();
+            int start = c.find(RECORD, 0, c.end);
+            while (start >= 0) {
+                int next = c.find(RECORD, start + RECORD.length, c.end);
+                int end = next >= 0 ? next : c.end;
+                LogRecord r = parseRecord(file, c, start, end);
+                if (r != null) records.add(r);
+                start = next;
+            }
+            return records;
+        }
+    }
+
+    private static LogRecord parseRecord(Path file, Cursor c, int start, int end) {
+        c.pos = start + RECORD.length;
+        LocalDateTime time = c.readTime(end);
+        if (time == null) return null;
+
+        int rows = 0, cols = 0;
+        boolean complete = false;
+        int data = c.find(DATA, c.pos, end);
+        if (data >= 0) {
+            c.pos = data + DATA.length;
+            rows = c.readInt(end);
+            if (c.skip(TIMES, end)) cols = c.readInt(end);
+            int sectionEnd = c.find(SECTION, c.pos, end);
+            int limit = sectionEnd >= 0 ? sectionEnd : end;
+            complete = c.find(DATA_TRUNCATED, c.pos, limit) < 0 && c.find(DATA_ELIDED, c.pos, limit) < 0;
+        }
+
+        IntList ranking = new IntList();
+        DoubleList scores = new DoubleList();
+        int rank = c.find(RANKING, c.pos, end);
+        if (rank >= 0) {
+            c.pos = rank + RANKING.length;
+            while (true) {
+                c.skipWhitespace(end);
+                if (!c.skip(RANK, end)) break;
+                c.readInt(end);
+                if (!c.skip(TECH, end)) break;
+                int tech = c.readInt(end);
+                c.skipWhitespace(end);
+                if (!c.skip(SCORE, end)) break;
+                ranking.add(tech - 1);
+                scores.add(c.readDouble(end));
+            }
+        }
+        return new LogRecord(file, start, end - start, time, rows, cols, complete,
+                ranking.toArray(), scores.toArray());
+    }
+
+    // 解码一条记录的文本，还原为场景（正负指标取默认值，日志中未记录）
+    public Scenario load(LogRecord record) throws IOException {
+        if (!record.hasCompleteData()) {
+            throw new IOException("记录 [" + TIME_FORMAT.format(record.getTime())
+                    + "] 只记录了数据矩阵的部分行或列，无法重新载入");
+        }
+        ByteBuffer buf = ByteBuffer.allocate(record.getLength());
+        try (FileChannel channel = FileChannel.open(record.getFile(), StandardOpenOption.READ)) {
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, record.getOffset() + buf.position()) < 0) {
+                    throw new IOException(record.getFile() + ": 记录不完整");
+                }
+            }
+        }
+        String[] lines = new String(buf.array(), StandardCharsets.UTF_8).split("\n");
+
+        List<double[]> data = new ArrayList<>();
+        List<double[][]> judgments = new ArrayList<>();
+        List<String> hierarchy = null;
+        double alpha = EvaluationEngine.DEFAULT_ALPHA;
+        double beta = EvaluationEngine.DEFAULT_BETA;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.startsWith("技术") && line.indexOf(':') > 0) {
+                data.add(parseValues(line.substring(line.indexOf(':') + 1), record));
+            } else if (line.startsWith("【R")) {
+                // 判断矩阵按先序编号R1..Rk依次出现
+                int k = judgments.size();
+                int size = Integer.parseInt(line.substring(line.lastIndexOf('(') + 1, line.lastIndexOf('×')));
+                if (!line.startsWith("【R" + (k + 1) + " ") || i + size >= lines.length) {
+                    throw new IOException("记录 [" + TIME_FORMAT.format(record.getTime()) + "] 判断矩阵不完整: " + line);
+                }
+                double[][] R = new double[size][];
+                for (int r = 0; r < size; r++) {
+                    R[r] = parseValues(lines[++i], record);
+                }
+                judgments.add(R);
+            } else if (line.equals("【指标体系】")) {
+                // 显式定义的指标体系，到空行为止
+                hierarchy = new ArrayList<>();
+                while (i + 1 < lines.length && !lines[i + 1].trim().isEmpty()) {
+                    hierarchy.add(lines[++i]);
+                }
+            } else if (line.startsWith("偏离度参数: α=")) {
+                int comma = line.indexOf(',');
+                alpha = Double.parseDouble(line.substring("偏离度参数: α=".length(), comma));
+                beta = Double.parseDouble(line.substring(line.indexOf('=', comma) + 1));
+            } else if (line.startsWith("开始计算效能值")) {
+                break;
+            }
+        }
+        if (data.size() != record.getRows()) {
+            throw new IOException("记录 [" + TIME_FORMAT.format(record.getTime()) + "] 数据矩阵行数不一致");
+        }
+        double[][][] matrices = judgments.toArray(new double[0][][]);
+        if (hierarchy != null) {
+            String[] names = IndicatorHierarchy.matrixNames(matrices.length);
+            Map<String, double[][]> byName = new HashMap<>();
+            for (int k = 0; k < matrices.length; k++) {
+                byName.put(names[k], matrices[k]);
+            }
+            int[] lineNumbers = new int[hierarchy.size()];
+            Arrays.setAll(lineNumbers, n -> n + 1);
+            return new Scenario(data.toArray(new double[0][]),
+                    IndicatorHierarchy.parse(hierarchy, lineNumbers, byName, record.getFile()), alpha, beta);
+        }
+        if (matrices.length != Scenario.JUDGMENT_NAMES.length) {
+            throw new IOException("记录 [" + TIME_FORMAT.format(record.getTime()) + "] 判断矩阵个数("
+                    + matrices.length + ")应为" + Scenario.JUDGMENT_NAMES.length);
+        }
+        return new Scenario(data.toArray(new double[0][]), matrices, alpha, beta);
+    }
+
+    private static double[] parseValues(String line, LogRecord record) throws IOException {
+        String[] parts = line.trim().split("\\s+");
+        double[] row = new double[parts.length];
+        for (int j = 0; j < parts.length; j++) {
+            // 判断矩阵中未填写的元素
+            if (parts[j].equals("?")) {
+                row[j] = Double.NaN;
+                continue;
+            }
+            try {
+                row[j] = Double.parseDouble(parts[j]);
+            } catch (NumberFormatException e) {
+                throw new IOException("记录 [" + TIME_FORMAT.format(record.getTime()) + "] 无法解析数值 \"" + parts[j] + "\"");
+            }
+        }
+        return row;
+    }
+
+    // 重新计算的排名与日志是否一致，以及日志中各名次效能值的最大偏差
+    static String compare(LogRecord record, EvaluationResult result) {
+        int[] logged = record.getRanking();
+        double[] loggedScores = record.getRankedScores();
+        int[] current = result.topK(logged.length);
+        double maxDiff = 0;
+        for (int r = 0; r < logged.length; r++) {
+            maxDiff = Math.max(maxDiff, Math.abs(result.getScore(logged[r]) - loggedScores[r]));
+        }
+        return (Arrays.equals(logged, current) ? "排名一致" : "排名不一致")
+                + String.format("\t最大效能值偏差 %.4f", maxDiff);
+    }
+
+    // 目录展开为其中的日志文件（按文件名排序）
+    static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path p : inputs) {
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.list(p)) {
+                    s.filter(f -> f.getFileName().toString().startsWith(EvaluationLog.PREFIX)
+                                    && f.getFileName().toString().endsWith(".txt"))
+                            .sorted().forEach(files::add);
+                }
+            } else {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    static LocalDateTime parseTime(String text, boolean endOfDay) {
+        try {
+            return LocalDateTime.parse(text.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            LocalDate date = LocalDate.parse(text);
+            return endOfDay ? date.atTime(LocalTime.MAX) : date.atStartOfDay();
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 映射缓冲区上的字节级扫描
+    private static final class Cursor {
+        final ByteBuffer buf;
+        final int end;
+        int pos;
+
+        Cursor(ByteBuffer buf, int end) {
+            this.buf = buf;
+            this.end = end;
+        }
+
+        // pattern在[from, to)内首次出现的位置，未找到返回-1
+        // 每次读8个字节，按位运算判断其中是否有pattern的首字节，没有则整体跳过
+        int find(byte[] pattern, int from, int to) {
+            byte first = pattern[0];
+            long broadcast = (first & 0xFFL) * 0x0101010101010101L;
+            int last = to - pattern.length;
+            int i = from;
+            while (i <= last) {
+                if (i + Long.BYTES <= to) {
+                    long x = buf.getLong(i) ^ broadcast;
+                    if (((x - 0x0101010101010101L) & ~x & 0x8080808080808080L) == 0) {
+                        i += Long.BYTES;
+                        continue;
+                    }
+                }
+                int stop = Math.min(i + Long.BYTES, last + 1);
+                for (; i < stop; i++) {
+                    if (buf.get(i) == first && matches(pattern, i)) return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matches(byte[] pattern, int at) {
+            for (int k = 1; k < pattern.length; k++) {
+                if (buf.get(at + k) != pattern[k]) return false;
+            }
+            return true;
+        }
+
+        boolean skip(byte[] pattern, int limit) {
+            if (pos + pattern.length > limit) return false;
+            for (int k = 0; k < pattern.length; k++) {
+                if (buf.get(pos + k) != pattern[k]) return false;
+            }
+            pos += pattern.length;
+            return true;
+        }
+
+        void skipWhitespace(int limit) {
+            while (pos < limit) {
+                byte b = buf.get(pos);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') break;
+                pos++;
+            }
+        }
+
+        int readInt(int limit) {
+            int value = 0;
+            while (pos < limit) {
+                byte b = buf.get(pos);
+                if (b < '0' || b > '9') break;
+                value = value * 10 + (b - '0');
+                pos++;
+            }
+            return value;
+        }
+
+        double readDouble(int limit) {
+            StringBuilder sb = new StringBuilder(16);
+            while (pos < limit) {
+                byte b = buf.get(pos);
+                if (b == '\n' || b == '\r' || b == ' ') break;
+                sb.append((char) b);
+                pos++;
+            }
+            try {
+                return Double.parseDouble(sb.toString());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        // "yyyy-MM-dd HH:mm:ss"
+        LocalDateTime readTime(int limit) {
+            if (pos + 19 > limit) return null;
+            int[] fields = new int[6];
+            int[] widths = {4, 2, 2, 2, 2, 2};
+            for (int f = 0; f < 6; f++) {
+                int start = pos;
+                fields[f] = readInt(start + widths[f]);
+                if (pos != start + widths[f]) return null;
+                pos++; // 跳过分隔符
+            }
+            try {
+                return LocalDateTime.of(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class DoubleList {
+        double[] values = new double[16];
+        int size;
+
+        void add(double v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    public static void main(String[] args) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        int tech = 0;
+        int replay = 0;
+        int export = 0;
+        Path exportFile = null;
+        boolean check = false;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--parallel") && i + 1 < args.length) {
+                    parallelism = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--from") && i + 1 < args.length) {
+                    from = parseTime(args[++i], false);
+                } else if (args[i].equals("--to") && i + 1 < args.length) {
+                    to = parseTime(args[++i], true);
+                } else if (args[i].equals("--tech") && i + 1 < args.length) {
+                    tech = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--replay") && i + 1 < args.length) {
+                    replay = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--export") && i + 2 < args.length) {
+                    export = Integer.parseInt(args[++i]);
+                    exportFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--check")) {
+                    check = true;
+                } else {
+                    inputs.add(Paths.get(args[i]));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            inputs.clear();
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("用法: java Main --logs [--parallel 并行度] [--from 时间] [--to 时间] [--tech 编号]");
+            System.err.println("                     [--replay 序号] [--export 序号 快照文件] [--check] 日志文件或目录...");
+            System.exit(2);
+        }
+
+        try {
+            long start = System.nanoTime();
+            LogIndex index = build(expand(inputs), parallelism);
+            List<LogRecord> selected = index.between(from, to);
+            System.err.printf("已索引 %d 条记录，用时 %.1f ms%n", index.records().size(), (System.nanoTime() - start) / 1e6);
+
+            // 序号是记录在时间范围内的位置
+            if (replay > 0 || export > 0) {
+                int n = Math.max(replay, export);
+                if (n > selected.size()) {
+                    throw new IOException("序号超出范围: " + n + "（共" + selected.size() + "条记录）");
+                }
+                LogRecord record = selected.get(n - 1);
+                Scenario scenario = index.load(record);
+                if (exportFile != null) {
+                    ScenarioSnapshot.write(scenario, exportFile);
+                    System.out.println("已导出 [" + TIME_FORMAT.format(record.getTime()) + "] 到 " + exportFile);
+                }
+                if (replay > 0) {
+                    EvaluationResult result = scenario.evaluate();
+                    System.out.println("=== 重新计算 [" + TIME_FORMAT.format(record.getTime()) + "] "
+                            + record.getFile().getFileName() + " ===");
+                    System.out.print(result.formatRanking(0, Math.max(1, record.getRanking().length)));
+                    if (record.hasRanking()) {
+                        System.out.println(compare(record, result));
+                    }
+                }
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder();
+            if (check) {
+                int checked = 0, mismatched = 0, skipped = 0;
+                for (int i = 0; i < selected.size(); i++) {
+                    LogRecord record = selected.get(i);
+                    if (!record.hasRanking() || !record.hasCompleteData()) {
+                        skipped++;
+                        continue;
+                    }
+                    // 单条记录载入或计算出错时跳过，不影响其余记录
+                    String line;
+                    try {
+                        line = compare(record, index.load(record).evaluate());
+                    } catch (IOException | RuntimeException e) {
+                        skipped++;
+                        System.err.println((i + 1) + "\t" + TIME_FORMAT.format(record.getTime()) + "\t跳过: " + e.getMessage());
+                        continue;
+                    }
+                    checked++;
+                    if (line.startsWith("排名不一致")) {
+                        mismatched++;
+                        sb.append(i + 1).append('\t').append(TIME_FORMAT.format(record.getTime()))
+                                .append('\t').append(line).append('\n');
+                    }
+                }
+                sb.append("已重新计算 ").append(checked).append(" 条，排名不一致 ").append(mismatched)
+                        .append(" 条，跳过（出错或数据不完整） ").append(skipped).append(" 条\n");
+            } else if (tech > 0) {
+                List<LogRecord> history = index.history(tech - 1, selected);
+                for (LogRecord record : history) {
+                    sb.append(TIME_FORMAT.format(record.getTime())).append('\t')
+                            .append(record.rankOf(tech - 1) + 1).append('\t')
+                            .append(record.scoreOf(tech - 1)).append('\t')
+                            .append(record.getFile().getFileName()).append('\n');
+                }
+            } else {
+                for (int i = 0; i < selected.size(); i++) {
+                    LogRecord record = selected.get(i);
+                    sb.append(i + 1).append('\t').append(TIME_FORMAT.format(record.getTime())).append('\t')
+                            .append(record.getRows()).append('\t');
+                    if (record.hasRanking()) {
+                        sb.append("装备").append(record.getRanking()[0] + 1).append('\t')
+                                .append(record.getRankedScores()[0]);
+                    } else {
+                        sb.append("出错\t");
+                    }
+                    sb.append('\t').append(record.getFile().getFileName()).append('\n');
+                }
+            }
+            System.out.print(sb);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("读取评估日志出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
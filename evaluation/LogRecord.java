@@ -0,0 +1,106 @@
+package evaluation;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+// 评估日志中的一条计算记录：位置、时间、数据规模和记录的排行榜
+//
+// 排行榜只包含日志中写出的名次（界面最多显示前1000名）；按技术查名次时用二分查找。
+public class LogRecord {
+    private final Path file;
+    private final long offset;
+    private final int length;
+    private final LocalDateTime time;
+    private final int rows;
+    private final int cols;
+    private final boolean completeData;
+    private final int[] ranking;
+    private final double[] scores;
+
+    // 按技术下标排序的技术及其名次
+    private final int[] techs;
+    private final int[] ranks;
+
+    LogRecord(Path file, long offset, int length, LocalDateTime time, int rows, int cols,
+              boolean completeData, int[] ranking, double[] scores) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.time = time;
+        this.rows = rows;
+        this.cols = cols;
+        this.completeData = completeData;
+        this.ranking = ranking;
+        this.scores = scores;
+
+        long[] packed = new long[ranking.length];
+        for (int r = 0; r < ranking.length; r++) {
+            packed[r] = (long) ranking[r] << 32 | r;
+        }
+        Arrays.sort(packed);
+        techs = new int[packed.length];
+        ranks = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            techs[i] = (int) (packed[i] >>> 32);
+            ranks[i] = (int) packed[i];
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // 记录在日志文件中的字节偏移和长度
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    // 数据矩阵的行数（技术数量）和列数
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // 日志中是否记录了数据矩阵的全部行（compact/none方式可能只记录部分行）
+    public boolean hasCompleteData() {
+        return completeData;
+    }
+
+    // 计算出错时日志中没有排行榜
+    public boolean hasRanking() {
+        return ranking.length > 0;
+    }
+
+    // 日志中记录的排名（技术下标，从0开始）
+    public int[] getRanking() {
+        return ranking.clone();
+    }
+
+    // 与getRanking对应的效能值（日志中保留4位小数）
+    public double[] getRankedScores() {
+        return scores.clone();
+    }
+
+    // 技术在本次记录中的名次（从0开始），日志中未记录时返回-1
+    public int rankOf(int technology) {
+        int i = Arrays.binarySearch(techs, technology);
+        return i >= 0 ? ranks[i] : -1;
+    }
+
+    public double scoreOf(int technology) {
+        int r = rankOf(technology);
+        return r >= 0 ? scores[r] : Double.NaN;
+    }
+}
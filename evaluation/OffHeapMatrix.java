@@ -0,0 +1,347 @@
+package evaluation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 堆外的按列存储矩阵：每列一个直接缓冲区或文件映射，数据不占用Java堆，也不产生每行一个对象
+//
+// 计算时按BLOCK_ROWS行一块复制到堆上的小ColumnMatrix，复用ColumnStats和ScoringKernel的计算核，
+// 堆上只占用一个块（见EvaluationEngine中以OffHeapMatrix为参数的方法）。
+//
+// 列文件格式（小端序）：4字节魔数"EVCM"，int版本号，int行数，int列数，之后依次为各列的rows个double。
+// 每列单独映射，单列不超过2GB，即行数不超过MAX_ROWS。
+//
+// 用法: java Main --offheap --convert 列文件 数据文件（CSV或二进制行文件）
+//       java Main --offheap --judgments 场景文件 [--out 结果文件] [--alpha α] [--beta β] [--top K] 列文件
+// 正负指标和偏离度参数取自场景文件，--alpha/--beta覆盖场景文件中的偏离度参数
+public final class OffHeapMatrix implements AutoCloseable {
+    static final byte[] MAGIC = "EVCM".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = MAGIC.length + 12;
+
+    public static final int MAX_ROWS = Integer.MAX_VALUE / Double.BYTES;
+
+    // 每次复制到堆上的行数
+    static final int BLOCK_ROWS = ScoringKernel.BLOCK * 16;
+
+    private final int rows;
+    private final int cols;
+    private final DoubleBuffer[] columns;
+    // 文件映射时为各列的映射区和对应的通道，否则为null
+    private final MappedByteBuffer[] mapped;
+    private final FileChannel channel;
+
+    private OffHeapMatrix(int rows, int cols, DoubleBuffer[] columns, MappedByteBuffer[] mapped, FileChannel channel) {
+        this.rows = rows;
+        this.cols = cols;
+        this.columns = columns;
+        this.mapped = mapped;
+        this.channel = channel;
+    }
+
+    private static void checkShape(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || rows > MAX_ROWS) {
+            throw new IllegalArgumentException("无效的矩阵大小: " + rows + "×" + cols + "（行数上限" + MAX_ROWS + "）");
+        }
+    }
+
+    // 分配不对应文件的堆外矩阵，初始全为0。直接缓冲区由GC回收其引用时释放
+    public static OffHeapMatrix allocate(int rows, int cols) {
+        checkShape(rows, cols);
+        DoubleBuffer[] columns = new DoubleBuffer[cols];
+        for (int j = 0; j < cols; j++) {
+            columns[j] = ByteBuffer.allocateDirect(rows * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        return new OffHeapMatrix(rows, cols, columns, null, null);
+    }
+
+    // 由按行存储的二维数组复制
+    public static OffHeapMatrix fromRows(double[][] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        OffHeapMatrix m = allocate(data.length, data[0].length);
+        ColumnMatrix chunk = new ColumnMatrix(Math.min(BLOCK_ROWS, data.length), m.cols);
+        for (int from = 0; from < data.length; from += BLOCK_ROWS) {
+            int n = Math.min(BLOCK_ROWS, data.length - from);
+            for (int i = 0; i < n; i++) {
+                double[] row = data[from + i];
+                if (row.length != m.cols) {
+                    throw new IllegalArgumentException("第" + (from + i + 1) + "行列数(" + row.length + ")与首行(" + m.cols + ")不一致");
+                }
+                for (int j = 0; j < m.cols; j++) {
+                    chunk.set(i, j, row[j]);
+                }
+            }
+            m.write(chunk, from, n);
+        }
+        return m;
+    }
+
+    // 新建列文件（已存在时覆盖）并以读写方式映射，初始全为0
+    public static OffHeapMatrix create(Path file, int rows, int cols) throws IOException {
+        checkShape(rows, cols);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return mapColumns(channel, rows, cols, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 按文件头判断是否为列文件
+    public static boolean isColumnFile(Path file) throws IOException {
+        byte[] head = new byte[MAGIC.length];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        return n == head.length && Arrays.equals(head, MAGIC);
+    }
+
+    // 映射已有的列文件；writable为false时只读
+    public static OffHeapMatrix map(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // 读满文件头
+            }
+            header.flip();
+            byte[] magic = new byte[MAGIC.length];
+            if (header.remaining() < HEADER_BYTES) {
+                throw new IOException(file + ": 文件头不完整");
+            }
+            header.get(magic);
+            int version = header.getInt();
+            int rows = header.getInt();
+            int cols = header.getInt();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                throw new IOException(file + ": 不是有效的列文件");
+            }
+            if (rows <= 0 || cols <= 0 || rows > MAX_ROWS) {
+                throw new IOException(file + ": 无效的矩阵大小 " + rows + "×" + cols);
+            }
+            if (channel.size() < HEADER_BYTES + (long) rows * cols * Double.BYTES) {
+                throw new IOException(file + ": 文件不完整，应有" + rows + "×" + cols + "个元素");
+            }
+            return mapColumns(channel, rows, cols,
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static OffHeapMatrix mapColumns(FileChannel channel, int rows, int cols, FileChannel.MapMode mode)
+            throws IOException {
+        long columnBytes = (long) rows * Double.BYTES;
+        DoubleBuffer[] columns = new DoubleBuffer[cols];
+        MappedByteBuffer[] mapped = new MappedByteBuffer[cols];
+        for (int j = 0; j < cols; j++) {
+            mapped[j] = channel.map(mode, HEADER_BYTES + j * columnBytes, columnBytes);
+            columns[j] = mapped[j].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return new OffHeapMatrix(rows, cols, columns, mapped, channel);
+    }
+
+    // 把行文件（CSV或二进制行文件）转换为列文件：第一遍数行数，第二遍按块写入
+    public static long convert(Path input, Path target) throws IOException {
+        int rows = 0;
+        int cols;
+        try (RowReader reader = RowReader.open(input)) {
+            cols = reader.cols();
+            double[] row = new double[cols];
+            while (reader.next(row)) {
+                if (++rows > MAX_ROWS) {
+                    throw new IOException(input + ": 行数超过上限" + MAX_ROWS);
+                }
+            }
+        }
+        if (rows == 0) {
+            throw new IOException(input + ": 没有技术评价数据");
+        }
+        try (RowReader reader = RowReader.open(input);
+             OffHeapMatrix m = create(target, rows, cols)) {
+            ColumnMatrix chunk = new ColumnMatrix(Math.min(BLOCK_ROWS, rows), cols);
+            double[] row = new double[cols];
+            for (int from = 0; from < rows; from += BLOCK_ROWS) {
+                int n = Math.min(BLOCK_ROWS, rows - from);
+                for (int i = 0; i < n; i++) {
+                    if (!reader.next(row)) {
+                        throw new IOException(input + ": 第二遍读取时行数减少");
+                    }
+                    for (int j = 0; j < cols; j++) {
+                        chunk.set(i, j, row[j]);
+                    }
+                }
+                m.write(chunk, from, n);
+            }
+            m.force();
+        }
+        return rows;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public double get(int i, int j) {
+        return columns[j].get(i);
+    }
+
+    public void set(int i, int j, double value) {
+        columns[j].put(i, value);
+    }
+
+    // 第from..from+n-1行复制到chunk的前n行（chunk的行数不小于n）
+    public void read(int from, int n, ColumnMatrix chunk) {
+        double[] v = chunk.array();
+        for (int j = 0; j < cols; j++) {
+            columns[j].get(from, v, chunk.offset(j), n);
+        }
+    }
+
+    // chunk的前n行写入第from..from+n-1行
+    public void write(ColumnMatrix chunk, int from, int n) {
+        double[] v = chunk.array();
+        for (int j = 0; j < cols; j++) {
+            columns[j].put(from, v, chunk.offset(j), n);
+        }
+    }
+
+    // 逐块统计各列最小值、最大值和累加和
+    public ColumnStats stats() {
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.STATS);
+        ColumnStats stats = new ColumnStats(cols);
+        ColumnMatrix chunk = newChunk();
+        for (int from = 0; from < rows; from += BLOCK_ROWS) {
+            int n = Math.min(BLOCK_ROWS, rows - from);
+            read(from, n, chunk);
+            stats.accept(chunk, 0, n);
+        }
+        timer.stop(rows);
+        return stats;
+    }
+
+    // 与本矩阵列数相同、行数为一块的堆上矩阵
+    ColumnMatrix newChunk() {
+        return new ColumnMatrix(Math.min(BLOCK_ROWS, rows), cols);
+    }
+
+    // 文件映射时把修改写回磁盘
+    public void force() {
+        if (mapped != null && !columns[0].isReadOnly()) {
+            for (MappedByteBuffer column : mapped) {
+                column.force();
+            }
+        }
+    }
+
+    // 关闭文件通道；映射区和直接缓冲区在不再被引用后由GC释放
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        Path judgmentsFile = null;
+        Path outFile = null;
+        Path convertTarget = null;
+        Path input = null;
+        Double alpha = null;
+        Double beta = null;
+        int top = 0;
+        boolean usage = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--judgments") && i + 1 < args.length) {
+                    judgmentsFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--alpha") && i + 1 < args.length) {
+                    alpha = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--beta") && i + 1 < args.length) {
+                    beta = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--out") && i + 1 < args.length) {
+                    outFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--convert") && i + 1 < args.length) {
+                    convertTarget = Paths.get(args[++i]);
+                } else if (args[i].equals("--top") && i + 1 < args.length) {
+                    top = Integer.parseInt(args[++i]);
+                } else {
+                    input = Paths.get(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage = true;
+        }
+        if (usage || input == null || (convertTarget == null && judgmentsFile == null)) {
+            System.err.println("用法: java Main --offheap --convert 列文件 数据文件");
+            System.err.println("      java Main --offheap --judgments 场景文件 [--out 结果文件] [--alpha α] [--beta β] [--top K] 列文件");
+            System.exit(2);
+        }
+
+        try {
+            if (convertTarget != null) {
+                long rows = convert(input, convertTarget);
+                System.err.println("已转换 " + rows + " 行到 " + convertTarget);
+                return;
+            }
+
+            EvaluationEngine engine = Scenario.readEngine(judgmentsFile);
+            if (alpha != null || beta != null) {
+                engine = engine.withDeviationParameters(alpha != null ? alpha : engine.alpha(),
+                        beta != null ? beta : engine.beta());
+            }
+            EvaluationResult result;
+            try (OffHeapMatrix data = map(input, false)) {
+                result = engine.evaluate(data, Scenario.readHierarchy(judgmentsFile).compile());
+            }
+            try (Writer w = outFile != null
+                    ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+                int[] ranking = top > 0 && top < result.size() ? result.topK(top) : result.getRanking();
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < ranking.length; i++) {
+                    line.setLength(0);
+                    line.append(i + 1).append('\t').append(ranking[i] + 1).append('\t')
+                            .append(result.getScore(ranking[i])).append('\n');
+                    w.append(line);
+                }
+                w.flush();
+            }
+            System.err.println("已评估 " + result.size() + " 行");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("堆外评估出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
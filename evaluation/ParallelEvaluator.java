@@ -0,0 +1,192 @@
+package evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+// 并行评估：在ForkJoinPool中按行区间拆分任务
+//
+// 1. 各区间分别统计原始列最小/最大值和累加和，再逐级合并；
+// 2. 各区间用全局最小/最大值归一化，同时求归一化后的列和，合并得到列均值；
+// 3. 各区间独立运行融合评分核。
+// 区间按固定阈值二分，合并顺序与线程数无关，因此结果可复现；列均值的求和顺序与串行不同，
+// 与EvaluationEngine的结果相差在舍入误差范围内。
+public class ParallelEvaluator implements AutoCloseable {
+
+    // 每个子任务至少处理的行数
+    static final int THRESHOLD = ScoringKernel.BLOCK * 64;
+
+    private final EvaluationEngine engine;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    // 创建专用线程池，parallelism为并行度
+    public ParallelEvaluator(EvaluationEngine engine, int parallelism) {
+        this(engine, new ForkJoinPool(parallelism), true);
+    }
+
+    // 使用调用方的线程池，close时不关闭
+    public ParallelEvaluator(EvaluationEngine engine, ForkJoinPool pool) {
+        this(engine, pool, false);
+    }
+
+    private ParallelEvaluator(EvaluationEngine engine, ForkJoinPool pool, boolean ownsPool) {
+        this.engine = engine;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public EvaluationResult evaluate(double[][] data, WeightPlan plan) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        return new EvaluationResult(score(ColumnMatrix.fromRows(data), plan, new double[data.length]));
+    }
+
+    // 计算效能值并写入out（长度不小于技术数量）
+    public double[] score(ColumnMatrix data, WeightPlan plan, double[] out) {
+        int rows = data.rows();
+        int cols = plan.size();
+        if (data.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + data.cols() + ")与综合权重个数(" + cols + ")不一致");
+        }
+        if (out.length < rows) {
+            throw new IllegalArgumentException("结果缓冲区长度(" + out.length + ")小于技术数量(" + rows + ")");
+        }
+        int[] kinds = engine.polarity(cols);
+
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.STATS);
+        ColumnStats stats = pool.invoke(new StatsTask(data, 0, rows));
+        timer.stop(rows);
+
+        // 归一化的同时求列和，列均值不再单独计时
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.NORMALIZE);
+        ColumnMatrix A = new ColumnMatrix(rows, cols);
+        double[] means = pool.invoke(new NormalizeTask(data, A, stats, kinds, 0, rows));
+        for (int j = 0; j < cols; j++) {
+            means[j] /= rows;
+        }
+        timer.stop(rows);
+
+        timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+        pool.invoke(new ScoreTask(A, means, plan.weightsArray(), engine.alpha(), engine.beta(), out, 0, rows));
+        timer.stop(rows);
+        PipelineMetrics.addRows(rows);
+        return out;
+    }
+
+    // 并行统计原始列最小/最大值和累加和
+    public ColumnStats columnStats(ColumnMatrix data) {
+        return pool.invoke(new StatsTask(data, 0, data.rows()));
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private static int split(int from, int to) {
+        int mid = (from + to) >>> 1;
+        // 对齐到评分核的分块边界
+        return mid - (mid - from) % ScoringKernel.BLOCK;
+    }
+
+    private static final class StatsTask extends RecursiveTask<ColumnStats> {
+        private final ColumnMatrix data;
+        private final int from, to;
+
+        StatsTask(ColumnMatrix data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ColumnStats compute() {
+            if (to - from <= THRESHOLD) {
+                ColumnStats stats = new ColumnStats(data.cols());
+                stats.accept(data, from, to);
+                return stats;
+            }
+            int mid = split(from, to);
+            StatsTask left = new StatsTask(data, from, mid);
+            left.fork();
+            ColumnStats right = new StatsTask(data, mid, to).compute();
+            ColumnStats result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+
+    // 返回归一化后的列和
+    private static final class NormalizeTask extends RecursiveTask<double[]> {
+        private final ColumnMatrix src, dst;
+        private final ColumnStats stats;
+        private final int[] kinds;
+        private final int from, to;
+
+        NormalizeTask(ColumnMatrix src, ColumnMatrix dst, ColumnStats stats, int[] kinds, int from, int to) {
+            this.src = src;
+            this.dst = dst;
+            this.stats = stats;
+            this.kinds = kinds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= THRESHOLD) {
+                double[] sums = new double[src.cols()];
+                stats.normalize(src, dst, from, to, kinds, sums);
+                return sums;
+            }
+            int mid = split(from, to);
+            NormalizeTask left = new NormalizeTask(src, dst, stats, kinds, from, mid);
+            left.fork();
+            double[] right = new NormalizeTask(src, dst, stats, kinds, mid, to).compute();
+            double[] result = left.join();
+            for (int j = 0; j < result.length; j++) {
+                result[j] += right[j];
+            }
+            return result;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveAction {
+        private final ColumnMatrix A;
+        private final double[] means, weights, out;
+        private final double alpha, beta;
+        private final int from, to;
+
+        ScoreTask(ColumnMatrix A, double[] means, double[] weights, double alpha, double beta,
+                  double[] out, int from, int to) {
+            this.A = A;
+            this.means = means;
+            this.weights = weights;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                ScoringKernel.score(A, from, to, means, weights, alpha, beta, out);
+                return;
+            }
+            int mid = split(from, to);
+            invokeAll(new ScoreTask(A, means, weights, alpha, beta, out, from, mid),
+                    new ScoreTask(A, means, weights, alpha, beta, out, mid, to));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 评估流水线的分阶段计时和计数：进程内累计，可随时取快照显示或导出为JSON
+//
+// 每个阶段一次计时只做两次System.nanoTime和几次LongAdder累加，并提交一个StageEvent（JFR）；
+// 计时加在整次调用的阶段边界上，不进入逐行循环。系统属性 evaluation.metrics=false 关闭计时和事件。
+// 系统属性 evaluation.metrics.out=文件 在进程退出时把累计指标写为JSON（适用于各命令行模式）；
+// 界面可随时导出，评估服务见GET /metrics。
+//
+// 用法:
+//   PipelineMetrics.Timer t = PipelineMetrics.start(PipelineMetrics.Stage.NORMALIZE);
+//   ...
+//   t.stop(rows);
+public final class PipelineMetrics {
+
+    public enum Stage {
+        PARSE("读取场景"),
+        WEIGHTS("权重推导"),
+        TRANSPOSE("行列转换"),
+        STATS("列统计"),
+        NORMALIZE("归一化"),
+        MEANS("列均值"),
+        SCORE("偏离度与效能值"),
+        RANKING("排名"),
+        FORMAT("结果格式化"),
+        LOG_WRITE("日志写入");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("evaluation.metrics", "true"));
+
+    private static final int STAGES = Stage.values().length;
+    private static final LongAdder[] COUNT = adders(STAGES);
+    private static final LongAdder[] NANOS = adders(STAGES);
+    private static final LongAccumulator[] MAX_NANOS = new LongAccumulator[STAGES];
+    private static final LongAdder ROWS = new LongAdder();
+    private static final LongAdder LOG_BYTES = new LongAdder();
+    private static final LongAdder LOG_RECORDS = new LongAdder();
+
+    static {
+        for (int s = 0; s < STAGES; s++) {
+            MAX_NANOS[s] = new LongAccumulator(Math::max, 0);
+        }
+        String out = System.getProperty("evaluation.metrics.out");
+        if (ENABLED && out != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.write(Paths.get(out), snapshot().toJson().getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    System.err.println("写入性能指标出错: " + e.getMessage());
+                }
+            }, "evaluation-metrics"));
+        }
+    }
+
+    private static final Timer NOOP = new Timer(null);
+
+    // 只用于查询evaluation.Stage事件当前是否开启记录，未开启时不创建事件对象
+    private static final StageEvent PROBE = new StageEvent();
+
+    private PipelineMetrics() {
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        for (int i = 0; i < n; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    // 一次阶段计时，stop只应调用一次
+    public static final class Timer {
+        private final Stage stage;
+        private final StageEvent event;
+        private final long start;
+
+        private Timer(Stage stage) {
+            this.stage = stage;
+            if (stage == null) {
+                event = null;
+                start = 0;
+            } else {
+                event = PROBE.isEnabled() ? new StageEvent() : null;
+                if (event != null) event.begin();
+                start = System.nanoTime();
+            }
+        }
+
+        public void stop() {
+            stop(0, 0);
+        }
+
+        public void stop(long rows) {
+            stop(rows, 0);
+        }
+
+        public void stop(long rows, long bytes) {
+            if (stage == null) return;
+            long elapsed = System.nanoTime() - start;
+            int s = stage.ordinal();
+            COUNT[s].increment();
+            NANOS[s].add(elapsed);
+            MAX_NANOS[s].accumulate(elapsed);
+            if (event == null) return;
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.label();
+                event.rows = rows;
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    public static Timer start(Stage stage) {
+        return ENABLED ? new Timer(stage) : NOOP;
+    }
+
+    // 已评分的技术（行）数
+    static void addRows(long rows) {
+        if (ENABLED) ROWS.add(rows);
+    }
+
+    // 已写入日志的记录数和字节数
+    static void addLogged(long records, long bytes) {
+        if (ENABLED) {
+            LOG_RECORDS.add(records);
+            LOG_BYTES.add(bytes);
+        }
+    }
+
+    public static Snapshot snapshot() {
+        long[] count = new long[STAGES];
+        long[] nanos = new long[STAGES];
+        long[] max = new long[STAGES];
+        for (int s = 0; s < STAGES; s++) {
+            count[s] = COUNT[s].sum();
+            nanos[s] = NANOS[s].sum();
+            max[s] = MAX_NANOS[s].get();
+        }
+        return new Snapshot(count, nanos, max, ROWS.sum(), LOG_RECORDS.sum(), LOG_BYTES.sum());
+    }
+
+    // 某一时刻的累计值。since得到两次快照之间的增量（增量中的最大耗时仍为累计最大值）
+    public static final class Snapshot {
+        private final long[] count;
+        private final long[] nanos;
+        private final long[] max;
+        private final long rows;
+        private final long logRecords;
+        private final long logBytes;
+
+        private Snapshot(long[] count, long[] nanos, long[] max, long rows, long logRecords, long logBytes) {
+            this.count = count;
+            this.nanos = nanos;
+            this.max = max;
+            this.rows = rows;
+            this.logRecords = logRecords;
+            this.logBytes = logBytes;
+        }
+
+        public Snapshot since(Snapshot earlier) {
+            long[] c = new long[STAGES];
+            long[] n = new long[STAGES];
+            for (int s = 0; s < STAGES; s++) {
+                c[s] = count[s] - earlier.count[s];
+                n[s] = nanos[s] - earlier.nanos[s];
+            }
+            return new Snapshot(c, n, max.clone(), rows - earlier.rows,
+                    logRecords - earlier.logRecords, logBytes - earlier.logBytes);
+        }
+
+        public long count(Stage stage) {
+            return count[stage.ordinal()];
+        }
+
+        public long totalNanos(Stage stage) {
+            return nanos[stage.ordinal()];
+        }
+
+        public long maxNanos(Stage stage) {
+            return max[stage.ordinal()];
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public long logRecords() {
+            return logRecords;
+        }
+
+        public long logBytes() {
+            return logBytes;
+        }
+
+        // 文本摘要，只列出有计时的阶段
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            for (Stage stage : Stage.values()) {
+                int s = stage.ordinal();
+                if (count[s] == 0) continue;
+                sb.append(String.format("%-8s %6d次  合计 %10.3f ms  平均 %9.3f ms  最大 %9.3f ms%n",
+                        stage.label(), count[s], nanos[s] / 1e6, nanos[s] / 1e6 / count[s], max[s] / 1e6));
+            }
+            sb.append(String.format("评分行数: %d  日志记录: %d  日志字节: %d%n", rows, logRecords, logBytes));
+            return sb.toString();
+        }
+
+        // {"stages":{"NORMALIZE":{"label":"归一化","count":..,"totalNanos":..,"maxNanos":..},...},
+        //  "rows":..,"logRecords":..,"logBytes":..}
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\"stages\":{");
+            boolean first = true;
+            for (Stage stage : Stage.values()) {
+                int s = stage.ordinal();
+                if (!first) json.append(',');
+                first = false;
+                Json.appendString(json, stage.name());
+                json.append(":{\"label\":");
+                Json.appendString(json, stage.label());
+                json.append(",\"count\":").append(count[s])
+                        .append(",\"totalNanos\":").append(nanos[s])
+                        .append(",\"maxNanos\":").append(max[s]).append('}');
+            }
+            json.append("},\"rows\":").append(rows)
+                    .append(",\"logRecords\":").append(logRecords)
+                    .append(",\"logBytes\":").append(logBytes).append('}');
+            return json.toString();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package evaluation;
+
+// float存储模式与double路径的对照：效能值的最大偏差和名次变化，用于逐次判断内存减半是否可接受
+public final class PrecisionReport {
+    private final int rows;
+    private final int cols;
+    private final double maxAbsError;
+    private final double maxRelError;
+    private final int worstTechnology;
+    // 按double路径的名次排列：doubleRanking[r]为第r+1名的技术，floatRank[t]为技术t在float路径中的名次（从0开始）
+    private final int[] doubleRanking;
+    private final int[] floatRank;
+    private final int changed;
+    private final int maxShift;
+    private final int firstChangedRank;
+
+    PrecisionReport(int cols, double[] reference, double[] reduced) {
+        int n = reference.length;
+        rows = n;
+        this.cols = cols;
+        double maxAbs = 0;
+        double maxRel = 0;
+        int worst = 0;
+        for (int t = 0; t < n; t++) {
+            double d = Math.abs(reduced[t] - reference[t]);
+            if (d > maxAbs) {
+                maxAbs = d;
+                worst = t;
+            }
+            if (reference[t] != 0) maxRel = Math.max(maxRel, d / Math.abs(reference[t]));
+        }
+        maxAbsError = maxAbs;
+        maxRelError = maxRel;
+        worstTechnology = worst;
+
+        doubleRanking = Ranking.sortDescending(reference);
+        int[] floatRanking = Ranking.sortDescending(reduced);
+        floatRank = new int[n];
+        for (int r = 0; r < n; r++) {
+            floatRank[floatRanking[r]] = r;
+        }
+        int count = 0;
+        int shift = 0;
+        int first = -1;
+        for (int r = 0; r < n; r++) {
+            int s = Math.abs(floatRank[doubleRanking[r]] - r);
+            if (s != 0) {
+                count++;
+                shift = Math.max(shift, s);
+                if (first < 0) first = r;
+            }
+        }
+        changed = count;
+        maxShift = shift;
+        firstChangedRank = first;
+    }
+
+    // 对同一数据分别用double和float存储评分并对照
+    public static PrecisionReport compare(EvaluationEngine engine, double[][] data, WeightPlan plan) {
+        double[] reference = engine.score(ColumnMatrix.fromRows(data), plan, new double[data.length]);
+        double[] reduced = engine.score(FloatColumnMatrix.fromRows(data), plan, new double[data.length]);
+        return new PrecisionReport(plan.size(), reference, reduced);
+    }
+
+    public double maxAbsError() {
+        return maxAbsError;
+    }
+
+    public double maxRelError() {
+        return maxRelError;
+    }
+
+    // 名次发生变化的技术个数
+    public int changedRanks() {
+        return changed;
+    }
+
+    // 名次变化的最大幅度
+    public int maxRankShift() {
+        return maxShift;
+    }
+
+    // 第一个名次不同的位置（从1开始），排名完全一致时为0；例如为11表示前10名不变
+    public int firstChangedRank() {
+        return firstChangedRank + 1;
+    }
+
+    public String formatReport() {
+        return formatReport(20);
+    }
+
+    // limit为最多列出的名次变化条数
+    public String formatReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        long doubleBytes = 2L * rows * cols * Double.BYTES;
+        sb.append(String.format("技术数: %d, 指标数: %d, 数据与归一化矩阵: double %.1f MB -> float %.1f MB%n",
+                rows, cols, doubleBytes / 1048576.0, doubleBytes / 2 / 1048576.0));
+        sb.append(String.format("效能值最大绝对偏差: %.3e（装备%d），最大相对偏差: %.3e%n",
+                maxAbsError, worstTechnology + 1, maxRelError));
+        if (changed == 0) {
+            sb.append("排名与double路径完全一致\n");
+            return sb.toString();
+        }
+        sb.append(String.format("名次变化: %d项，最大变化 %d 名，前%d名不变%n", changed, maxShift, firstChangedRank));
+        int listed = 0;
+        for (int r = 0; r < rows && listed < limit; r++) {
+            int t = doubleRanking[r];
+            if (floatRank[t] != r) {
+                sb.append(String.format("  装备%d: 第%d名 -> 第%d名%n", t + 1, r + 1, floatRank[t] + 1));
+                listed++;
+            }
+        }
+        if (changed > listed) {
+            sb.append("  ……另有").append(changed - listed).append("项\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,9 @@
+package evaluation;
+
+// 计算进度回调，percent取值0..100
+@FunctionalInterface
+public interface ProgressListener {
+    ProgressListener NONE = percent -> { };
+
+    void onProgress(int percent);
+}
@@ -0,0 +1,360 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// 排名逆转分析：归一化用列最小/最大值、偏离度用列均值，都依赖全部技术，
+// 因此移除或加入一项技术可能改变其余技术之间的先后顺序
+//
+// 移除分析对每项技术t各做一次：列统计量增量更新——累加和减去第t行；每列预先记录最小值及其个数
+// 和次小值（最大值同理），t是唯一的最小值时新的最小值即次小值。最小/最大值不变的列归一化结果不变，
+// 只有变化的列重新归一化；列均值由原始累加和推出（见ColumnStats）。每行的效能值只依赖本行和列均值，
+// 因此对全部行评分后忽略第t行即可。每次移除的代价约为一次评分核O(N·指标数)，不重新解析、转置或推导权重。
+// 加入分析对给定的新行做一次：统计量合并新行后对N+1行归一化并评分。
+//
+// 名次变化只比较其余技术之间的相对顺序（移除第t项后排在它后面的技术整体前移一名不算变化）：
+// 逆序对为原排名中先后顺序被颠倒的技术对数。
+//
+// 用法: java Main --rank-reversal [--add 候选数据文件] [--limit 行数] [--parallel 并行度] 场景文件
+// 候选数据文件为CSV或二进制行文件，每行一项假想的新技术
+public class RankReversalAnalysis {
+    private final EvaluationEngine engine;
+    private final int parallelism;
+
+    public RankReversalAnalysis(EvaluationEngine engine, int parallelism) {
+        this.engine = engine;
+        this.parallelism = parallelism;
+    }
+
+    // candidates为假想加入的新技术（每行一项，可为空数组）
+    public RankReversalResult run(double[][] data, WeightPlan plan, double[][] candidates) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        ColumnMatrix X = ColumnMatrix.fromRows(data);
+        int n = X.rows();
+        int cols = X.cols();
+        if (cols != plan.size()) {
+            throw new IllegalArgumentException("数据列数(" + cols + ")与综合权重个数(" + plan.size() + ")不一致");
+        }
+        int[] kinds = engine.polarity(cols);
+        ColumnStats stats = new ColumnStats(cols);
+        stats.accept(X, 0, n);
+        Extremes extremes = new Extremes(X);
+
+        // 基准评分与各场景用同一种均值计算方式，避免舍入差异造成的假名次变化
+        ColumnMatrix A0 = new ColumnMatrix(n, cols);
+        stats.normalize(X, A0, 0, n, kinds, null);
+        double[] means = new double[cols];
+        stats.normalizedMeans(kinds, means);
+        double[] baseScores = new double[n];
+        ScoringKernel.score(A0, 0, n, means, plan.weightsArray(), engine.alpha(), engine.beta(), baseScores);
+        int[] baseRanking = Ranking.sortDescending(baseScores);
+
+        RankReversalResult.Impact[] removals = new RankReversalResult.Impact[n];
+        int workers = Math.max(1, Math.min(parallelism, n));
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int worker = w;
+                tasks.add(() -> {
+                    Worker wk = new Worker(X, A0, kinds, stats, extremes, plan.weightsArray(), baseRanking);
+                    for (int t = worker; t < n; t += workers) {
+                        removals[t] = wk.remove(t);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("排名逆转分析被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("排名逆转分析出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        PipelineMetrics.addRows((long) n * n);
+
+        RankReversalResult.Impact[] additions = new RankReversalResult.Impact[candidates.length];
+        for (int c = 0; c < candidates.length; c++) {
+            if (candidates[c].length != cols) {
+                throw new IllegalArgumentException(
+                        "第" + (c + 1) + "个候选技术的指标个数(" + candidates[c].length + ")与数据列数(" + cols + ")不一致");
+            }
+            additions[c] = add(X, kinds, stats, plan.weightsArray(), baseRanking, candidates[c]);
+        }
+        return new RankReversalResult(baseScores, baseRanking, removals, additions);
+    }
+
+    // 加入一行：统计量合并新行，对N+1行归一化并评分，新行的下标为N
+    private RankReversalResult.Impact add(ColumnMatrix X, int[] kinds, ColumnStats base, double[] weights,
+                                          int[] baseRanking, double[] row) {
+        int n = X.rows();
+        int cols = X.cols();
+        ColumnStats stats = base.copy();
+        stats.accept(row);
+        ColumnMatrix Xp = new ColumnMatrix(n + 1, cols);
+        for (int j = 0; j < cols; j++) {
+            System.arraycopy(X.array(), X.offset(j), Xp.array(), Xp.offset(j), n);
+            Xp.set(n, j, row[j]);
+        }
+        stats.normalize(Xp, Xp, 0, n + 1, kinds, null);
+        double[] means = new double[cols];
+        stats.normalizedMeans(kinds, means);
+        double[] scores = new double[n + 1];
+        ScoringKernel.score(Xp, 0, n + 1, means, weights, engine.alpha(), engine.beta(), scores);
+        PipelineMetrics.addRows(n + 1);
+
+        int[] order = Ranking.sortDescending(scores);
+        int newRank = 0;
+        while (order[newRank] != n) newRank++;
+        // 去掉新行后与原排名对照
+        int[] others = new int[n];
+        for (int r = 0, k = 0; r <= n; r++) {
+            if (order[r] != n) others[k++] = order[r];
+        }
+        return compare(baseRanking, -1, others, n, -1, newRank);
+    }
+
+    // 每列的最小值、最大值及其个数和次小值、次大值（不存在时为±∞）
+    static final class Extremes {
+        final double[] min1;
+        final double[] min2;
+        final int[] minCount;
+        final double[] max1;
+        final double[] max2;
+        final int[] maxCount;
+
+        Extremes(ColumnMatrix X) {
+            int cols = X.cols();
+            min1 = new double[cols];
+            min2 = new double[cols];
+            minCount = new int[cols];
+            max1 = new double[cols];
+            max2 = new double[cols];
+            maxCount = new int[cols];
+            double[] v = X.array();
+            for (int j = 0; j < cols; j++) {
+                double lo1 = Double.POSITIVE_INFINITY, lo2 = Double.POSITIVE_INFINITY;
+                double hi1 = Double.NEGATIVE_INFINITY, hi2 = Double.NEGATIVE_INFINITY;
+                int loCount = 0, hiCount = 0;
+                for (int i = X.offset(j), end = i + X.rows(); i < end; i++) {
+                    double x = v[i];
+                    if (x < lo1) {
+                        lo2 = lo1;
+                        lo1 = x;
+                        loCount = 1;
+                    } else if (x == lo1) {
+                        loCount++;
+                    } else if (x < lo2) {
+                        lo2 = x;
+                    }
+                    if (x > hi1) {
+                        hi2 = hi1;
+                        hi1 = x;
+                        hiCount = 1;
+                    } else if (x == hi1) {
+                        hiCount++;
+                    } else if (x > hi2) {
+                        hi2 = x;
+                    }
+                }
+                min1[j] = lo1;
+                min2[j] = lo2;
+                minCount[j] = loCount;
+                max1[j] = hi1;
+                max2[j] = hi2;
+                maxCount[j] = hiCount;
+            }
+        }
+    }
+
+    // 单个工作线程：归一化矩阵的副本和各缓冲区只分配一次，每次移除后只恢复变化的列
+    private final class Worker {
+        private final ColumnMatrix X;
+        private final ColumnMatrix A0;
+        private final ColumnMatrix A;
+        private final int[] kinds;
+        private final ColumnStats base;
+        private final ColumnStats stats;
+        private final Extremes extremes;
+        private final double[] weights;
+        private final int[] baseRanking;
+        private final double[] means;
+        private final double[] scores;
+        private final int[] order;
+        private final int[] tmp;
+        private final int[] others;
+        private final boolean[] changed;
+
+        Worker(ColumnMatrix X, ColumnMatrix A0, int[] kinds, ColumnStats base, Extremes extremes,
+               double[] weights, int[] baseRanking) {
+            this.X = X;
+            this.A0 = A0;
+            this.A = new ColumnMatrix(A0.rows(), A0.cols(), A0.array().clone());
+            this.kinds = kinds;
+            this.base = base;
+            this.stats = base.copy();
+            this.extremes = extremes;
+            this.weights = weights;
+            this.baseRanking = baseRanking;
+            int n = X.rows();
+            means = new double[X.cols()];
+            scores = new double[n];
+            order = new int[n];
+            tmp = new int[n];
+            others = new int[Math.max(0, n - 1)];
+            changed = new boolean[X.cols()];
+        }
+
+        RankReversalResult.Impact remove(int t) {
+            int n = X.rows();
+            int cols = X.cols();
+            if (n == 1) {
+                return new RankReversalResult.Impact(t, 0, 0, 0, -1, -1);
+            }
+            double[] x = X.array();
+            for (int j = 0; j < cols; j++) {
+                double v = x[X.offset(j) + t];
+                double lo = (v == extremes.min1[j] && extremes.minCount[j] == 1) ? extremes.min2[j] : extremes.min1[j];
+                double hi = (v == extremes.max1[j] && extremes.maxCount[j] == 1) ? extremes.max2[j] : extremes.max1[j];
+                stats.set(j, lo, hi, base.sum(j) - v);
+                changed[j] = kinds[j] != 0 && (lo != extremes.min1[j] || hi != extremes.max1[j]);
+                if (changed[j]) {
+                    renormalize(j, lo, hi);
+                }
+            }
+            stats.setCount(n - 1);
+            stats.normalizedMeans(kinds, means);
+            ScoringKernel.score(A, 0, n, means, weights, engine.alpha(), engine.beta(), scores);
+            // 第t行已移除，排到最后
+            scores[t] = Double.NEGATIVE_INFINITY;
+            Ranking.sortDescending(scores, n, order, tmp);
+            for (int r = 0, k = 0; r < n; r++) {
+                if (order[r] != t) others[k++] = order[r];
+            }
+            for (int j = 0; j < cols; j++) {
+                if (changed[j]) {
+                    System.arraycopy(A0.array(), A0.offset(j), A.array(), A.offset(j), n);
+                }
+            }
+            return compare(baseRanking, t, others, n - 1, t, -1);
+        }
+
+        // 按新的最小/最大值重新归一化第j列，规则与EvaluationEngine.normalizeData相同
+        private void renormalize(int j, double lo, double hi) {
+            int n = X.rows();
+            if (hi != lo) {
+                ColumnKernels.INSTANCE.scale(X.array(), X.offset(j), A.array(), A.offset(j), n, lo, hi, kinds[j] > 0);
+            } else {
+                Arrays.fill(A.array(), A.offset(j), A.offset(j) + n, 1.0);
+            }
+        }
+    }
+
+    // 把新排名others（m项，不含被移除或新加入的技术）与原排名baseRanking（跳过skip）对照
+    static RankReversalResult.Impact compare(int[] baseRanking, int skip, int[] others, int m, int technology, int newRank) {
+        int[] position = new int[baseRanking.length];
+        for (int r = 0, k = 0; r < baseRanking.length; r++) {
+            if (baseRanking[r] != skip) position[baseRanking[r]] = k++;
+        }
+        // seq[r]为新排名第r项在原排名（跳过skip）中的位置，逆序对个数即先后顺序颠倒的技术对数
+        int[] seq = new int[m];
+        int changed = 0;
+        int maxShift = 0;
+        for (int r = 0; r < m; r++) {
+            seq[r] = position[others[r]];
+            int shift = Math.abs(seq[r] - r);
+            if (shift != 0) {
+                changed++;
+                maxShift = Math.max(maxShift, shift);
+            }
+        }
+        int leader = (m > 0 && seq[0] != 0) ? others[0] : -1;
+        // countInversions会把seq排好序，放在最后
+        long reversals = changed == 0 ? 0 : countInversions(seq, new int[m], 0, m);
+        return new RankReversalResult.Impact(technology, changed, reversals, maxShift, leader, newRank);
+    }
+
+    // 归并排序统计a[from..to)中的逆序对，a排序后返回
+    static long countInversions(int[] a, int[] tmp, int from, int to) {
+        if (to - from < 2) return 0;
+        int mid = (from + to) >>> 1;
+        long count = countInversions(a, tmp, from, mid) + countInversions(a, tmp, mid, to);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            if (a[i] <= a[j]) {
+                tmp[k++] = a[i++];
+            } else {
+                count += mid - i;
+                tmp[k++] = a[j++];
+            }
+        }
+        while (i < mid) tmp[k++] = a[i++];
+        while (j < to) tmp[k++] = a[j++];
+        System.arraycopy(tmp, from, a, from, to - from);
+        return count;
+    }
+
+    static double[][] readCandidates(Path file) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (RowReader reader = RowReader.open(file)) {
+            double[] row = new double[reader.cols()];
+            while (reader.next(row)) {
+                rows.add(row.clone());
+            }
+        }
+        return rows.toArray(new double[0][]);
+    }
+
+    public static void main(String[] args) {
+        int limit = Integer.MAX_VALUE;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String addFile = null;
+        String file = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--add") && i + 1 < args.length) {
+                    addFile = args[++i];
+                } else if (args[i].equals("--limit") && i + 1 < args.length) {
+                    limit = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                    parallelism = Integer.parseInt(args[++i]);
+                } else {
+                    file = args[i];
+                }
+            }
+        } catch (NumberFormatException e) {
+            file = null;
+        }
+        if (file == null) {
+            System.err.println("用法: java Main --rank-reversal [--add 候选数据文件] [--limit 行数] [--parallel 并行度] 场景文件");
+            System.exit(2);
+        }
+
+        try {
+            Scenario scenario = Scenario.open(Paths.get(file));
+            double[][] candidates = addFile != null ? readCandidates(Paths.get(addFile)) : new double[0][];
+            long start = System.nanoTime();
+            RankReversalResult result = new RankReversalAnalysis(scenario.engine(), parallelism)
+                    .run(scenario.getData(), scenario.plan(), candidates);
+            System.out.print(result.formatReport(limit));
+            System.err.printf("%d项技术的移除分析用时 %.1f ms%n", result.size(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("排名逆转分析出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
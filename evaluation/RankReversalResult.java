@@ -0,0 +1,140 @@
+package evaluation;
+
+import java.text.DecimalFormat;
+
+// 排名逆转分析结果：移除每项技术、加入每个候选技术后其余技术相对顺序的变化
+public class RankReversalResult {
+
+    // 一次移除或加入的影响
+    public static final class Impact {
+        private final int technology;
+        private final int changedRanks;
+        private final long reversals;
+        private final int maxShift;
+        private final int newLeader;
+        private final int newRank;
+
+        Impact(int technology, int changedRanks, long reversals, int maxShift, int newLeader, int newRank) {
+            this.technology = technology;
+            this.changedRanks = changedRanks;
+            this.reversals = reversals;
+            this.maxShift = maxShift;
+            this.newLeader = newLeader;
+            this.newRank = newRank;
+        }
+
+        // 被移除的技术（从0开始），加入分析时为-1
+        public int technology() {
+            return technology;
+        }
+
+        // 相对名次发生变化的其余技术个数
+        public int changedRanks() {
+            return changedRanks;
+        }
+
+        // 先后顺序颠倒的技术对数
+        public long reversals() {
+            return reversals;
+        }
+
+        public int maxShift() {
+            return maxShift;
+        }
+
+        // 第一名变为的技术（从0开始），第一名不变时为-1
+        public int newLeader() {
+            return newLeader;
+        }
+
+        // 加入分析时新技术的名次（从0开始），移除分析时为-1
+        public int newRank() {
+            return newRank;
+        }
+    }
+
+    private final double[] baseScores;
+    private final int[] baseRanking;
+    private final Impact[] removals;
+    private final Impact[] additions;
+
+    RankReversalResult(double[] baseScores, int[] baseRanking, Impact[] removals, Impact[] additions) {
+        this.baseScores = baseScores;
+        this.baseRanking = baseRanking;
+        this.removals = removals;
+        this.additions = additions;
+    }
+
+    public int size() {
+        return baseScores.length;
+    }
+
+    // 原排名（技术下标，从0开始）
+    public int[] getBaseRanking() {
+        return baseRanking.clone();
+    }
+
+    // 移除第t项技术（从0开始）的影响
+    public Impact removal(int technology) {
+        return removals[technology];
+    }
+
+    public int additionCount() {
+        return additions.length;
+    }
+
+    public Impact addition(int candidate) {
+        return additions[candidate];
+    }
+
+    // 移除后会颠倒其余技术先后顺序的技术个数
+    public int reversingRemovals() {
+        int count = 0;
+        for (Impact impact : removals) {
+            if (impact.reversals > 0) count++;
+        }
+        return count;
+    }
+
+    public String formatReport() {
+        return formatReport(Integer.MAX_VALUE);
+    }
+
+    // limit为移除分析最多列出的行数（按原名次）
+    public String formatReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        DecimalFormat df = new DecimalFormat("0.0000");
+        int n = baseScores.length;
+        sb.append("=== 排名逆转分析 (").append(n).append("项技术) ===\n\n");
+        sb.append(String.format("移除任一项后其余排名发生逆转的技术: %d/%d\n\n", reversingRemovals(), n));
+        for (int r = 0; r < Math.min(n, limit); r++) {
+            int t = baseRanking[r];
+            sb.append(String.format("第%d名: 装备%-2d | 效能值: %s | 移除后: ", r + 1, t + 1, df.format(baseScores[t])));
+            appendImpact(sb, removals[t]);
+        }
+        if (limit < n) {
+            sb.append("……另有").append(n - limit).append("项\n");
+        }
+        if (additions.length > 0) {
+            sb.append("\n=== 加入候选技术 ===\n\n");
+            for (int c = 0; c < additions.length; c++) {
+                Impact impact = additions[c];
+                sb.append(String.format("候选%d: 排第%d名 | ", c + 1, impact.newRank + 1));
+                appendImpact(sb, impact);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendImpact(StringBuilder sb, Impact impact) {
+        if (impact.changedRanks == 0) {
+            sb.append("其余排名不变\n");
+            return;
+        }
+        sb.append(String.format("名次变化 %d 项 | 逆序对 %d | 最大变化 %d 名", impact.changedRanks, impact.reversals, impact.maxShift));
+        if (impact.newLeader >= 0) {
+            sb.append(" | 第一名变为装备").append(impact.newLeader + 1);
+        }
+        sb.append('\n');
+    }
+}
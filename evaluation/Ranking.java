@@ -0,0 +1,91 @@
+package evaluation;
+
+import java.util.Arrays;
+
+// 基于原始类型数组的排名：按效能值降序排列技术下标，效能值相同时下标小的在前
+//
+// 全排名用归并排序；只需要前k名时用有界堆（TopK），时间O(n log k)，不分配n个装箱对象
+public final class Ranking {
+
+    private Ranking() {
+    }
+
+    // 将0..n-1按scores降序写入order，tmp为长度不小于n的临时缓冲区；稳定排序，不装箱
+    public static void sortDescending(double[] scores, int n, int[] order, int[] tmp) {
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        mergeSort(scores, order, tmp, 0, n);
+    }
+
+    public static int[] sortDescending(double[] scores) {
+        int n = scores.length;
+        int[] order = new int[n];
+        sortDescending(scores, n, order, new int[n]);
+        return order;
+    }
+
+    // 前k名的技术下标（k大于n时返回全部）
+    public static int[] topK(double[] scores, int k) {
+        int n = scores.length;
+        k = Math.min(k, n);
+        if ((long) k * 4 >= n) {
+            // k接近n时全排序更快
+            int[] order = sortDescending(scores);
+            return k == n ? order : Arrays.copyOf(order, k);
+        }
+        TopK top = new TopK(k);
+        for (int i = 0; i < n; i++) {
+            top.accept(i, scores[i]);
+        }
+        long[] ids = new long[k];
+        top.sorted(ids, new double[k]);
+        int[] result = new int[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = (int) ids[i];
+        }
+        return result;
+    }
+
+    // 第page页（从0开始，每页pageSize项）的技术下标
+    public static int[] page(double[] scores, int page, int pageSize) {
+        long from = (long) page * pageSize;
+        if (from >= scores.length) return new int[0];
+        int[] top = topK(scores, (int) Math.min(scores.length, from + pageSize));
+        return Arrays.copyOfRange(top, (int) from, top.length);
+    }
+
+    // a是否应排在b之前
+    static boolean before(double[] scores, int a, int b) {
+        int c = Double.compare(scores[a], scores[b]);
+        return c > 0 || (c == 0 && a < b);
+    }
+
+    private static void mergeSort(double[] scores, int[] order, int[] tmp, int from, int to) {
+        if (to - from <= 16) {
+            // 插入排序
+            for (int i = from + 1; i < to; i++) {
+                int v = order[i];
+                int j = i - 1;
+                while (j >= from && before(scores, v, order[j])) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(scores, order, tmp, from, mid);
+        mergeSort(scores, order, tmp, mid, to);
+        if (!before(scores, order[mid], order[mid - 1])) return;
+
+        System.arraycopy(order, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            order[k++] = before(scores, tmp[j], tmp[i]) ? tmp[j++] : tmp[i++];
+        }
+        while (i < mid) order[k++] = tmp[i++];
+        while (j < to) order[k++] = tmp[j++];
+    }
+}
@@ -0,0 +1,33 @@
+package evaluation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// 逐行读取技术评价数据，每行一个技术，供流式评估使用
+public interface RowReader extends AutoCloseable {
+
+    // 每行的指标个数
+    int cols();
+
+    // 读取下一行到row（长度不小于cols），无更多数据时返回false
+    boolean next(double[] row) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    // 按文件头判断格式：二进制行文件以BinaryRowReader.MAGIC开头，否则按CSV文本读取
+    static RowReader open(Path file) throws IOException {
+        byte[] head = new byte[BinaryRowReader.MAGIC.length];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        if (n == head.length && Arrays.equals(head, BinaryRowReader.MAGIC)) {
+            return new BinaryRowReader(file);
+        }
+        return new CsvRowReader(file);
+    }
+}
@@ -0,0 +1,119 @@
+package evaluation;
+
+// ColumnKernels的标量实现，与原来各处的循环逐位相同
+final class ScalarKernels implements ColumnKernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void minMaxSum(double[] v, int from, int to, double[] stats) {
+        double lo = stats[0];
+        double hi = stats[1];
+        double s = stats[2];
+        for (int i = from; i < to; i++) {
+            lo = Math.min(lo, v[i]);
+            hi = Math.max(hi, v[i]);
+            s += v[i];
+        }
+        stats[0] = lo;
+        stats[1] = hi;
+        stats[2] = s;
+    }
+
+    @Override
+    public double sum(double[] v, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += v[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double scale(double[] in, int base, double[] out, int target, int n, double lo, double hi, boolean positive) {
+        double s = 0;
+        for (int i = 0; i < n; i++) {
+            double v = positive ? (in[base + i] - lo) / (hi - lo) : (hi - in[base + i]) / (hi - lo);
+            out[target + i] = v;
+            s += v;
+        }
+        return s;
+    }
+
+    @Override
+    public void deviation(double[] v, int base, int n, double mean, double w, double alpha, double beta,
+                          double[] dynamic, int d, double[] sums) {
+        for (int k = 0; k < n; k++) {
+            double a = v[base + k];
+            double deviation = (a <= mean) ? (alpha + mean) / (alpha + a) : (beta + a) / (beta + mean);
+            double m = w * deviation;
+            dynamic[d + k] = m;
+            sums[k] += m;
+        }
+    }
+
+    @Override
+    public void accumulate(double[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n) {
+        for (int k = 0; k < n; k++) {
+            out[o + k] += (dynamic[d + k] / sums[k]) * v[base + k];
+        }
+    }
+
+    @Override
+    public void minMaxSum(float[] v, int from, int to, double[] stats) {
+        double lo = stats[0];
+        double hi = stats[1];
+        double s = stats[2];
+        for (int i = from; i < to; i++) {
+            double x = v[i];
+            lo = Math.min(lo, x);
+            hi = Math.max(hi, x);
+            s += x;
+        }
+        stats[0] = lo;
+        stats[1] = hi;
+        stats[2] = s;
+    }
+
+    @Override
+    public double sum(float[] v, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += v[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double scale(float[] in, int base, float[] out, int target, int n, double lo, double hi, boolean positive) {
+        double s = 0;
+        for (int i = 0; i < n; i++) {
+            float v = (float) (positive ? (in[base + i] - lo) / (hi - lo) : (hi - in[base + i]) / (hi - lo));
+            out[target + i] = v;
+            s += v;
+        }
+        return s;
+    }
+
+    @Override
+    public void deviation(float[] v, int base, int n, double mean, double w, double alpha, double beta,
+                          double[] dynamic, int d, double[] sums) {
+        for (int k = 0; k < n; k++) {
+            double a = v[base + k];
+            double deviation = (a <= mean) ? (alpha + mean) / (alpha + a) : (beta + a) / (beta + mean);
+            double m = w * deviation;
+            dynamic[d + k] = m;
+            sums[k] += m;
+        }
+    }
+
+    @Override
+    public void accumulate(float[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n) {
+        for (int k = 0; k < n; k++) {
+            out[o + k] += (dynamic[d + k] / sums[k]) * v[base + k];
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package evaluation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 评估场景：技术评价数据矩阵、指标体系及其判断矩阵
+//
+// 文本格式示例（'#'开头为注释，数值以空格或逗号分隔）：
+//   [data]
+//   0.8 0 0 ...
+//   [R1]
+//   0.5 0.6 ...
+// 没有[hierarchy]段落时使用固定的两级体系R1..R8，未给出的判断矩阵按默认阶数填充0.5。
+// 段落之外可用"alpha = 0.01"、"beta = 0.01"设置偏离度参数，用"pos = 1 2 3 ..."、"neg = 7 8 ..."
+// 设置正、负指标（指标编号从1开始，与界面列标题一致）。
+// 有[hierarchy]段落时按其定义指标体系（格式见IndicatorHierarchy），判断矩阵段落可任意命名，
+// 正负性由指标行给出，pos、neg不再使用。
+// 判断矩阵中未填写的元素写作"?"，按互补关系推断（r_ji已知时取1 - r_ji，否则取0.5）。
+// 批量评估（readBatch）时可以有多个数据矩阵段落[data]、[data 名称]，共用同一套判断矩阵。
+// 也可以是ScenarioSnapshot写出的二进制快照，见open。
+public class Scenario {
+
+    public static final String[] JUDGMENT_NAMES = {"R1", "R2", "R3", "R4", "R5", "R6", "R7", "R8"};
+
+    // R1..R8的默认阶数
+    public static final int[] DEFAULT_JUDGMENT_SIZES = {7, 6, 3, 3, 7, 8, 4, 3};
+
+    private final double[][] data;
+    private final double[][][] judgments;
+    private final int[] posIndicators;
+    private final int[] negIndicators;
+    private final double alpha;
+    private final double beta;
+    // 显式定义的指标体系，为null时为由judgments构成的固定两级体系
+    private final IndicatorHierarchy hierarchy;
+
+    public Scenario(double[][] data, double[][][] judgments) {
+        this(data, judgments, EvaluationEngine.DEFAULT_ALPHA, EvaluationEngine.DEFAULT_BETA);
+    }
+
+    public Scenario(double[][] data, double[][][] judgments, double alpha, double beta) {
+        this(data, judgments, EvaluationEngine.DEFAULT_POS_INDICATORS, EvaluationEngine.DEFAULT_NEG_INDICATORS,
+                alpha, beta);
+    }
+
+    public Scenario(double[][] data, double[][][] judgments, int[] posIndicators, int[] negIndicators,
+                    double alpha, double beta) {
+        this.data = data;
+        this.judgments = judgments;
+        this.posIndicators = posIndicators.clone();
+        this.negIndicators = negIndicators.clone();
+        this.alpha = alpha;
+        this.beta = beta;
+        this.hierarchy = null;
+    }
+
+    // 按指标体系构造，判断矩阵和正负指标均取自hierarchy
+    public Scenario(double[][] data, IndicatorHierarchy hierarchy, double alpha, double beta) {
+        this.data = data;
+        this.judgments = hierarchy.judgments();
+        this.posIndicators = hierarchy.posIndicators();
+        this.negIndicators = hierarchy.negIndicators();
+        this.alpha = alpha;
+        this.beta = beta;
+        this.hierarchy = hierarchy;
+    }
+
+    public double[][] getData() {
+        return data;
+    }
+
+    // 各分组的判断矩阵（先序），固定体系时judgments[0]为R1，其余依次为R2..R8
+    public double[][][] getJudgments() {
+        return judgments;
+    }
+
+    // 正指标列下标（从0开始）
+    public int[] getPosIndicators() {
+        return posIndicators.clone();
+    }
+
+    // 负指标列下标（从0开始）
+    public int[] getNegIndicators() {
+        return negIndicators.clone();
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    // 指标体系，未显式定义时为由判断矩阵和正负指标构成的两级体系
+    public IndicatorHierarchy getHierarchy() {
+        return hierarchy != null ? hierarchy : IndicatorHierarchy.twoLevel(judgments, posIndicators, negIndicators);
+    }
+
+    // 是否显式定义了指标体系
+    public boolean hasHierarchy() {
+        return hierarchy != null;
+    }
+
+    // 编译后的综合权重方案
+    public WeightPlan plan() {
+        return hierarchy != null ? hierarchy.compile() : WeightPlan.of(judgments);
+    }
+
+    // 按本场景的正负指标和偏离度参数构造计算引擎
+    public EvaluationEngine engine() {
+        return new EvaluationEngine(posIndicators, negIndicators, alpha, beta);
+    }
+
+    // 使用本场景的指标体系、正负指标和偏离度参数计算
+    public EvaluationResult evaluate() {
+        return engine().evaluate(data, plan());
+    }
+
+    // 按文件头判断格式：二进制快照以ScenarioSnapshot.MAGIC开头，否则按文本场景读取
+    public static Scenario open(Path file) throws IOException {
+        return isSnapshot(file) ? ScenarioSnapshot.read(file) : read(file);
+    }
+
+    // 读取文本场景文件
+    public static Scenario read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader, file);
+        }
+    }
+
+    // 从reader读取文本场景，source只用于错误信息
+    public static Scenario read(BufferedReader reader, Path source) throws IOException {
+        Map<String, Scenario> scenarios = readBatch(reader, source);
+        if (scenarios.size() > 1) {
+            throw new IOException(source + ": 包含" + scenarios.size() + "个数据矩阵段落，只能有一个[data]");
+        }
+        Scenario scenario = scenarios.get("data");
+        if (scenario == null) {
+            throw new IOException(source + ": 缺少[data]段落");
+        }
+        return scenario;
+    }
+
+    // 读取含多个数据矩阵段落的文本场景，返回段落名（"data"或"data 名称"）到场景的映射，按出现顺序排列。
+    // 各场景共用同一个指标体系对象
+    public static Map<String, Scenario> readBatch(BufferedReader reader, Path source) throws IOException {
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.PARSE);
+        Sections sections = readSections(reader, source);
+        IndicatorHierarchy hierarchy = sections.hierarchy != null ? sections.hierarchy(source) : null;
+        double[][][] judgments = hierarchy == null ? sections.judgments(source) : null;
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : sections.lineNumbers.entrySet()) {
+            if (!isDataSection(e.getKey())) continue;
+            double[][] data = sections.matrices.get(e.getKey());
+            if (data.length == 0) {
+                throw new IOException(source + " 第" + e.getValue() + "行: [" + e.getKey() + "]段落为空");
+            }
+            scenarios.put(e.getKey(), hierarchy != null
+                    ? new Scenario(data, hierarchy, sections.params[0], sections.params[1])
+                    : new Scenario(data, judgments, sections.polarity[0], sections.polarity[1],
+                            sections.params[0], sections.params[1]));
+        }
+        if (scenarios.isEmpty()) {
+            throw new IOException(source + ": 缺少[data]段落");
+        }
+        long rows = 0;
+        for (Scenario s : scenarios.values()) rows += s.data.length;
+        timer.stop(rows);
+        return scenarios;
+    }
+
+    private static boolean isDataSection(String section) {
+        return section.equals("data") || section.startsWith("data ");
+    }
+
+    // 只读取判断矩阵（先序），[data]段落可以省略（用于流式评估等数据另行提供的场合）
+    public static double[][][] readJudgments(Path file) throws IOException {
+        return readHierarchy(file).judgments();
+    }
+
+    // 按structure的结构读取判断矩阵（用于多位专家共用一个指标体系）：文件有[hierarchy]段落时取其判断矩阵，
+    // 否则按先序读取[R1]..[Rk]，未给出的按structure中对应的阶数填充0.5。阶数必须与structure一致
+    public static double[][][] readJudgments(Path file, IndicatorHierarchy structure) throws IOException {
+        if (isSnapshot(file)) {
+            return checkSizes(ScenarioSnapshot.read(file).getJudgments(), structure, file);
+        }
+        Sections sections;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            sections = readSections(reader, file);
+        }
+        if (sections.hierarchy != null) {
+            return checkSizes(sections.hierarchy(file).judgments(), structure, file);
+        }
+        String[] names = IndicatorHierarchy.matrixNames(structure.groupCount());
+        for (Map.Entry<String, Integer> e : sections.lineNumbers.entrySet()) {
+            if (!isDataSection(e.getKey()) && !Arrays.asList(names).contains(e.getKey())) {
+                throw new IOException(file + " 第" + e.getValue() + "行: 未知的矩阵段落 [" + e.getKey() + "]");
+            }
+        }
+        double[][][] base = structure.judgments();
+        double[][][] judgments = new double[names.length][][];
+        for (int k = 0; k < names.length; k++) {
+            double[][] R = sections.matrices.get(names[k]);
+            judgments[k] = R != null ? R : EvaluationEngine.createFullMatrix(base[k].length, 0.5);
+        }
+        return checkSizes(judgments, structure, file);
+    }
+
+    private static double[][][] checkSizes(double[][][] judgments, IndicatorHierarchy structure, Path file)
+            throws IOException {
+        double[][][] base = structure.judgments();
+        if (judgments.length != base.length) {
+            throw new IOException(file + ": 判断矩阵个数应为" + base.length + "，实际为" + judgments.length);
+        }
+        for (int k = 0; k < base.length; k++) {
+            for (double[] row : judgments[k]) {
+                if (judgments[k].length != base[k].length || row.length != base[k].length) {
+                    throw new IOException(file + ": 第" + (k + 1) + "个判断矩阵应为" + base[k].length + "阶");
+                }
+            }
+        }
+        return judgments;
+    }
+
+    // 只读取指标体系，[data]段落可以省略
+    public static IndicatorHierarchy readHierarchy(Path file) throws IOException {
+        if (isSnapshot(file)) {
+            return ScenarioSnapshot.read(file).getHierarchy();
+        }
+        Sections sections;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            sections = readSections(reader, file);
+        }
+        if (sections.hierarchy != null) {
+            return sections.hierarchy(file);
+        }
+        try {
+            return IndicatorHierarchy.twoLevel(sections.judgments(file), sections.polarity[0], sections.polarity[1]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    // 只读取正负指标和偏离度参数构造计算引擎，[data]段落可以省略（用于流式、堆外和分片评估等数据另行提供的场合）
+    public static EvaluationEngine readEngine(Path file) throws IOException {
+        if (isSnapshot(file)) {
+            return ScenarioSnapshot.read(file).engine();
+        }
+        Sections sections;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            sections = readSections(reader, file);
+        }
+        if (sections.hierarchy != null) {
+            IndicatorHierarchy hierarchy = sections.hierarchy(file);
+            return new EvaluationEngine(hierarchy.posIndicators(), hierarchy.negIndicators(),
+                    sections.params[0], sections.params[1]);
+        }
+        return new EvaluationEngine(sections.polarity[0], sections.polarity[1], sections.params[0], sections.params[1]);
+    }
+
+    private static boolean isSnapshot(Path file) throws IOException {
+        byte[] head = new byte[ScenarioSnapshot.MAGIC.length];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        return n == head.length && Arrays.equals(head, ScenarioSnapshot.MAGIC);
+    }
+
+    // 文本场景文件的各段落和参数
+    private static final class Sections {
+        // 段落名到矩阵，以及各段落的起始行号
+        final Map<String, double[][]> matrices = new HashMap<>();
+        final Map<String, Integer> lineNumbers = new LinkedHashMap<>();
+        // [hierarchy]段落的原始行（保留缩进）及行号，没有该段落时为null
+        List<String> hierarchy;
+        List<Integer> hierarchyLines;
+        final double[] params = {EvaluationEngine.DEFAULT_ALPHA, EvaluationEngine.DEFAULT_BETA};
+        final int[][] polarity = {EvaluationEngine.DEFAULT_POS_INDICATORS, EvaluationEngine.DEFAULT_NEG_INDICATORS};
+
+        IndicatorHierarchy hierarchy(Path file) throws IOException {
+            int[] lines = hierarchyLines.stream().mapToInt(Integer::intValue).toArray();
+            return IndicatorHierarchy.parse(hierarchy, lines, matrices, file);
+        }
+
+        // 固定两级体系的R1..R8，未出现的按默认阶数填充0.5
+        double[][][] judgments(Path file) throws IOException {
+            for (Map.Entry<String, Integer> e : lineNumbers.entrySet()) {
+                if (!isDataSection(e.getKey()) && !Arrays.asList(JUDGMENT_NAMES).contains(e.getKey())) {
+                    throw new IOException(file + " 第" + e.getValue() + "行: 未知的矩阵段落 [" + e.getKey() + "]");
+                }
+            }
+            double[][][] judgments = new double[JUDGMENT_NAMES.length][][];
+            for (int k = 0; k < judgments.length; k++) {
+                double[][] R = matrices.get(JUDGMENT_NAMES[k]);
+                judgments[k] = R != null ? R : EvaluationEngine.createFullMatrix(DEFAULT_JUDGMENT_SIZES[k], 0.5);
+            }
+            return judgments;
+        }
+    }
+
+    private static Sections readSections(BufferedReader reader, Path file) throws IOException {
+        Sections sections = new Sections();
+        String section = null;
+        List<double[]> rows = new ArrayList<>();
+        String raw;
+        int lineNo = 0;
+        while ((raw = reader.readLine()) != null) {
+            lineNo++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (section != null && !section.equals("hierarchy")) {
+                    sections.matrices.put(section, rows.toArray(new double[0][]));
+                }
+                section = line.substring(1, line.length() - 1).trim();
+                if (sections.lineNumbers.containsKey(section)) {
+                    throw new IOException(file + " 第" + lineNo + "行: 重复的段落 [" + section + "]");
+                }
+                sections.lineNumbers.put(section, lineNo);
+                if (section.equals("hierarchy")) {
+                    sections.hierarchy = new ArrayList<>();
+                    sections.hierarchyLines = new ArrayList<>();
+                }
+                rows = new ArrayList<>();
+                continue;
+            }
+
+            int eq = line.indexOf('=');
+            if (eq > 0) {
+                String key = line.substring(0, eq).trim();
+                String value = line.substring(eq + 1).trim();
+                if (key.equals("pos") || key.equals("neg")) {
+                    sections.polarity[key.equals("pos") ? 0 : 1] = parseIndicators(value, file, lineNo);
+                    continue;
+                }
+                int index = key.equals("alpha") ? 0 : key.equals("beta") ? 1 : -1;
+                if (index < 0) {
+                    throw new IOException(file + " 第" + lineNo + "行: 未知的参数 " + key);
+                }
+                sections.params[index] = parseRow(value, file, lineNo, false)[0];
+                continue;
+            }
+
+            if (section == null) {
+                throw new IOException(file + " 第" + lineNo + "行: 数据出现在任何矩阵段落之前");
+            }
+            if (section.equals("hierarchy")) {
+                sections.hierarchy.add(raw);
+                sections.hierarchyLines.add(lineNo);
+            } else {
+                rows.add(parseRow(line, file, lineNo, !isDataSection(section)));
+            }
+        }
+        if (section != null && !section.equals("hierarchy")) {
+            sections.matrices.put(section, rows.toArray(new double[0][]));
+        }
+        return sections;
+    }
+
+    // allowMissing为true时"?"解析为NaN（判断矩阵中未填写的元素）
+    static double[] parseRow(String line, Path file, int lineNo, boolean allowMissing) throws IOException {
+        String[] parts = line.split("[\\s,]+");
+        double[] row = new double[parts.length];
+        for (int j = 0; j < parts.length; j++) {
+            if (allowMissing && parts[j].equals("?")) {
+                row[j] = Double.NaN;
+                continue;
+            }
+            try {
+                row[j] = Double.parseDouble(parts[j]);
+            } catch (NumberFormatException e) {
+                throw new IOException(file + " 第" + lineNo + "行: 无法解析数值 \"" + parts[j] + "\"");
+            }
+        }
+        return row;
+    }
+
+    // 指标编号从1开始，返回从0开始的列下标
+    private static int[] parseIndicators(String value, Path file, int lineNo) throws IOException {
+        if (value.isEmpty()) return new int[0];
+        double[] numbers = parseRow(value, file, lineNo, false);
+        int[] indicators = new int[numbers.length];
+        for (int j = 0; j < numbers.length; j++) {
+            if (numbers[j] < 1 || numbers[j] != Math.floor(numbers[j])) {
+                throw new IOException(file + " 第" + lineNo + "行: 无效的指标编号 " + numbers[j]);
+            }
+            indicators[j] = (int) numbers[j] - 1;
+        }
+        return indicators;
+    }
+}
@@ -0,0 +1,267 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 场景的二进制快照：保存并按内存映射读回完整场景
+//
+// 格式（小端序）：
+//   4字节魔数"EVSC"，int版本号，int数据行数，int数据列数，int判断矩阵个数k，
+//   k个int判断矩阵阶数，int正指标个数，int负指标个数，int指标体系字节数t，正指标下标，负指标下标，
+//   t字节UTF-8指标体系定义（[hierarchy]段落格式，判断矩阵依次引用为R1..Rk；t为0表示固定两级体系），
+//   填充到8字节对齐，double α，double β，各判断矩阵（按行），数据矩阵（按行）
+// 版本1没有指标体系字节数和指标体系定义，仍可读取。
+//
+// 用法: java Main --snapshot 场景文件 快照文件
+public class ScenarioSnapshot {
+    static final byte[] MAGIC = "EVSC".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 2;
+
+    // 文件头中到判断矩阵个数为止的固定部分
+    private static final int FIXED_BYTES = MAGIC.length + 16;
+    private static final int MAX_JUDGMENTS = 64;
+    private static final int MAX_JUDGMENT_SIZE = 4096;
+    private static final int MAX_HIERARCHY_BYTES = 1 << 24;
+    private static final int BUFFER_BYTES = 1 << 16;
+    // 数据矩阵每次映射的最大字节数
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private ScenarioSnapshot() {
+    }
+
+    public static void write(Scenario scenario, Path target) throws IOException {
+        double[][] data = scenario.getData();
+        double[][][] judgments = scenario.getJudgments();
+        int[] pos = scenario.getPosIndicators();
+        int[] neg = scenario.getNegIndicators();
+        int rows = data.length;
+        int cols = rows == 0 ? 0 : data[0].length;
+        byte[] hierarchy = scenario.hasHierarchy()
+                ? scenario.getHierarchy().format(IndicatorHierarchy.matrixNames(judgments.length)).getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        // 与读取时的检查一致，超出限制的场景写出后无法再打开，在创建文件之前报错
+        if (judgments.length > MAX_JUDGMENTS) {
+            throw new IOException("判断矩阵个数(" + judgments.length + ")超过快照的上限" + MAX_JUDGMENTS);
+        }
+        for (int m = 0; m < judgments.length; m++) {
+            double[][] R = judgments[m];
+            if (R.length > MAX_JUDGMENT_SIZE) {
+                throw new IOException("第" + (m + 1) + "个判断矩阵的阶数(" + R.length + ")超过快照的上限" + MAX_JUDGMENT_SIZE);
+            }
+            for (double[] row : R) {
+                if (row.length != R.length) {
+                    throw new IOException("第" + (m + 1) + "个判断矩阵不是方阵");
+                }
+            }
+        }
+        if (pos.length > cols || neg.length > cols) {
+            throw new IOException("正负指标个数超过数据列数(" + cols + ")");
+        }
+        if (hierarchy.length > MAX_HIERARCHY_BYTES) {
+            throw new IOException("指标体系描述(" + hierarchy.length + "字节)超过快照的上限" + MAX_HIERARCHY_BYTES);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerBytes(VERSION, judgments.length, pos.length, neg.length, hierarchy.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(judgments.length);
+        for (double[][] R : judgments) {
+            header.putInt(R.length);
+        }
+        header.putInt(pos.length).putInt(neg.length).putInt(hierarchy.length);
+        for (int p : pos) header.putInt(p);
+        for (int n : neg) header.putInt(n);
+        header.put(hierarchy);
+        while (header.position() % Double.BYTES != 0) header.put((byte) 0);
+        header.putDouble(scenario.getAlpha()).putDouble(scenario.getBeta());
+        header.flip();
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, Math.max(cols, MAX_JUDGMENT_SIZE) * Double.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (double[][] R : judgments) {
+                for (double[] row : R) {
+                    putRow(buf, row, out);
+                }
+            }
+            for (double[] row : data) {
+                if (row.length != cols) {
+                    throw new IOException("数据矩阵各行列数不一致");
+                }
+                putRow(buf, row, out);
+            }
+            drain(buf, out);
+        }
+    }
+
+    public static Scenario read(Path file) throws IOException {
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.PARSE);
+        Scenario scenario = load(file);
+        timer.stop(scenario.getData().length);
+        return scenario;
+    }
+
+    private static Scenario load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer fixed = readFully(channel, 0, FIXED_BYTES, file);
+            byte[] magic = new byte[MAGIC.length];
+            fixed.get(magic);
+            int version = fixed.getInt();
+            int rows = fixed.getInt();
+            int cols = fixed.getInt();
+            int k = fixed.getInt();
+            if (!Arrays.equals(magic, MAGIC) || version < 1 || version > VERSION) {
+                throw new IOException(file + ": 不是有效的场景快照");
+            }
+            if (rows < 0 || cols < 0 || k < 0 || k > MAX_JUDGMENTS) {
+                throw new IOException(file + ": 场景快照文件头已损坏");
+            }
+
+            int countInts = k + (version >= 2 ? 3 : 2);
+            ByteBuffer counts = readFully(channel, FIXED_BYTES, countInts * Integer.BYTES, file);
+            int[] sizes = new int[k];
+            long judgmentBytes = 0;
+            for (int m = 0; m < k; m++) {
+                sizes[m] = counts.getInt();
+                if (sizes[m] < 0 || sizes[m] > MAX_JUDGMENT_SIZE) {
+                    throw new IOException(file + ": 场景快照文件头已损坏");
+                }
+                judgmentBytes += (long) sizes[m] * sizes[m] * Double.BYTES;
+            }
+            int posCount = counts.getInt();
+            int negCount = counts.getInt();
+            int hierarchyBytes = version >= 2 ? counts.getInt() : 0;
+            if (posCount < 0 || negCount < 0 || posCount > cols || negCount > cols
+                    || hierarchyBytes < 0 || hierarchyBytes > MAX_HIERARCHY_BYTES) {
+                throw new IOException(file + ": 场景快照文件头已损坏");
+            }
+
+            int headerBytes = headerBytes(version, k, posCount, negCount, hierarchyBytes);
+            long dataOffset = headerBytes + judgmentBytes;
+            long dataBytes = (long) rows * cols * Double.BYTES;
+            if (size != dataOffset + dataBytes) {
+                throw new IOException(file + ": 场景快照长度(" + size + ")与文件头不一致，应为" + (dataOffset + dataBytes));
+            }
+
+            int polarityOffset = FIXED_BYTES + countInts * Integer.BYTES;
+            ByteBuffer rest = channel.map(FileChannel.MapMode.READ_ONLY, polarityOffset, dataOffset - polarityOffset)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int[] pos = new int[posCount];
+            int[] neg = new int[negCount];
+            for (int i = 0; i < posCount; i++) pos[i] = rest.getInt();
+            for (int i = 0; i < negCount; i++) neg[i] = rest.getInt();
+            byte[] hierarchy = new byte[hierarchyBytes];
+            rest.get(hierarchy);
+            rest.position(headerBytes - polarityOffset - 2 * Double.BYTES);
+            double alpha = rest.getDouble();
+            double beta = rest.getDouble();
+
+            DoubleBuffer values = rest.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            double[][][] judgments = new double[k][][];
+            for (int m = 0; m < k; m++) {
+                judgments[m] = new double[sizes[m]][sizes[m]];
+                for (double[] row : judgments[m]) {
+                    values.get(row);
+                }
+            }
+
+            // 数据矩阵分窗口映射，每个窗口内按行批量复制
+            double[][] data = new double[rows][cols];
+            long rowBytes = (long) cols * Double.BYTES;
+            int windowRows = rowBytes == 0 ? rows : (int) Math.max(1, Math.min(rows, MAP_WINDOW / rowBytes));
+            for (int i = 0; i < rows; i += windowRows) {
+                int n = Math.min(windowRows, rows - i);
+                DoubleBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + i * rowBytes, n * rowBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                for (int r = 0; r < n; r++) {
+                    window.get(data[i + r]);
+                }
+            }
+            if (hierarchyBytes == 0) {
+                return new Scenario(data, judgments, pos, neg, alpha, beta);
+            }
+            return new Scenario(data, parseHierarchy(hierarchy, judgments, file), alpha, beta);
+        }
+    }
+
+    private static IndicatorHierarchy parseHierarchy(byte[] text, double[][][] judgments, Path file) throws IOException {
+        List<String> lines = Arrays.asList(new String(text, StandardCharsets.UTF_8).split("\n"));
+        int[] lineNumbers = new int[lines.size()];
+        Arrays.setAll(lineNumbers, i -> i + 1);
+        String[] names = IndicatorHierarchy.matrixNames(judgments.length);
+        Map<String, double[][]> matrices = new HashMap<>();
+        for (int m = 0; m < judgments.length; m++) {
+            matrices.put(names[m], judgments[m]);
+        }
+        IndicatorHierarchy hierarchy = IndicatorHierarchy.parse(lines, lineNumbers, matrices, file);
+        if (hierarchy.groupCount() != judgments.length) {
+            throw new IOException(file + ": 场景快照中的指标体系与判断矩阵个数不一致");
+        }
+        return hierarchy;
+    }
+
+    private static int headerBytes(int version, int judgments, int pos, int neg, int hierarchy) {
+        int counts = judgments + (version >= 2 ? 3 : 2);
+        int bytes = FIXED_BYTES + (counts + pos + neg) * Integer.BYTES + hierarchy;
+        bytes = (bytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+        return bytes + 2 * Double.BYTES;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int bytes, Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException(file + ": 场景快照文件头不完整");
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private static void putRow(ByteBuffer buf, double[] row, FileChannel out) throws IOException {
+        if (buf.remaining() < row.length * Double.BYTES) {
+            drain(buf, out);
+        }
+        for (double v : row) {
+            buf.putDouble(v);
+        }
+    }
+
+    private static void drain(ByteBuffer buf, FileChannel out) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("用法: java Main --snapshot 场景文件 快照文件");
+            System.exit(2);
+        }
+        try {
+            Scenario scenario = Scenario.open(Paths.get(args[0]));
+            write(scenario, Paths.get(args[1]));
+            System.err.println("已保存 " + scenario.getData().length + " 行到 " + args[1]);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("保存快照出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package evaluation;
+
+import java.util.Arrays;
+
+// 融合评分核：对归一化后的矩阵A，一次完成偏离度、权重相乘、行归一化和效能值计算，
+// 不再生成Sij、multiplied、alphaIj等中间矩阵。计算顺序与原流水线一致，结果逐位相同。
+//
+// A按列存储，因此按BLOCK行分块：块内逐列连续扫描，动态权值暂存在线程复用的工作区中。
+// 内层循环由ColumnKernels完成（可用时为Vector API实现，误差约定见ColumnKernels）
+final class ScoringKernel {
+
+    static final int BLOCK = 256;
+
+    private static final ColumnKernels KERNELS = ColumnKernels.INSTANCE;
+
+    // 每个线程复用的工作区
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    static final class Workspace {
+        private double[] means = new double[0];
+        private double[] dynamic = new double[0];
+        private double[] sums = new double[BLOCK];
+
+        double[] means(int cols) {
+            if (means.length < cols) means = new double[cols];
+            return means;
+        }
+
+        double[] dynamic(int cols) {
+            if (dynamic.length < cols * BLOCK) dynamic = new double[cols * BLOCK];
+            return dynamic;
+        }
+    }
+
+    private ScoringKernel() {
+    }
+
+    static Workspace workspace() {
+        return WORKSPACE.get();
+    }
+
+    // 计算A的列均值s_j，写入means的前cols个元素
+    static void columnMeans(ColumnMatrix A, double[] means) {
+        int rows = A.rows();
+        double[] v = A.array();
+        for (int j = 0; j < A.cols(); j++) {
+            int base = A.offset(j);
+            means[j] = KERNELS.sum(v, base, base + rows) / rows;
+        }
+    }
+
+    // 对A的第from..to-1行评分，效能值写入out的对应位置
+    static void score(ColumnMatrix A, int from, int to, double[] means, double[] weights,
+                      double alpha, double beta, double[] out) {
+        int cols = weights.length;
+        double[] v = A.array();
+        Workspace ws = WORKSPACE.get();
+        double[] dynamic = ws.dynamic(cols);
+        double[] sums = ws.sums;
+
+        for (int start = from; start < to; start += BLOCK) {
+            int n = Math.min(BLOCK, to - start);
+            Arrays.fill(sums, 0, n, 0.0);
+
+            // 偏离度乘以综合权重，同时累加行和
+            for (int j = 0; j < cols; j++) {
+                KERNELS.deviation(v, A.offset(j) + start, n, means[j], weights[j], alpha, beta,
+                        dynamic, j * BLOCK, sums);
+            }
+
+            // 归一化动态权值并计算效能值
+            Arrays.fill(out, start, start + n, 0.0);
+            for (int j = 0; j < cols; j++) {
+                KERNELS.accumulate(v, A.offset(j) + start, dynamic, j * BLOCK, sums, out, start, n);
+            }
+        }
+    }
+
+    // float存储的A，均值和效能值仍为double
+    static void columnMeans(FloatColumnMatrix A, double[] means) {
+        int rows = A.rows();
+        float[] v = A.array();
+        for (int j = 0; j < A.cols(); j++) {
+            int base = A.offset(j);
+            means[j] = KERNELS.sum(v, base, base + rows) / rows;
+        }
+    }
+
+    static void score(FloatColumnMatrix A, int from, int to, double[] means, double[] weights,
+                      double alpha, double beta, double[] out) {
+        int cols = weights.length;
+        float[] v = A.array();
+        Workspace ws = WORKSPACE.get();
+        double[] dynamic = ws.dynamic(cols);
+        double[] sums = ws.sums;
+
+        for (int start = from; start < to; start += BLOCK) {
+            int n = Math.min(BLOCK, to - start);
+            Arrays.fill(sums, 0, n, 0.0);
+            for (int j = 0; j < cols; j++) {
+                KERNELS.deviation(v, A.offset(j) + start, n, means[j], weights[j], alpha, beta,
+                        dynamic, j * BLOCK, sums);
+            }
+            Arrays.fill(out, start, start + n, 0.0);
+            for (int j = 0; j < cols; j++) {
+                KERNELS.accumulate(v, A.offset(j) + start, dynamic, j * BLOCK, sums, out, start, n);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package evaluation;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// 指标体系各判断矩阵（固定体系即R1..R8）的蒙特卡洛灵敏度分析
+//
+// 每次试验在±band范围内随机扰动各判断矩阵的上三角元素r_ij，同时令r_ji减去相同的量，
+// 保持r_ij + r_ji不变（并截断在[0,1]内），再按WeightPlan.deriveWeights重新推导权重并评分。
+// 归一化矩阵A与列均值不依赖权重，只计算一次；每次试验只重新运行评分核。
+//
+// 名次分布只逐名统计各技术未扰动名次附近的名次（见SensitivityResult.Histogram），内存与技术数成线性关系。
+//
+// 试验按CHUNK分块，每块使用预先拆分出的独立随机数流，结果与并行度无关，同一seed可复现。
+//
+// 用法: java Main --sensitivity [--trials 次数] [--band 扰动幅度] [--seed 种子] [--parallel 并行度] 场景文件
+public class SensitivityAnalysis {
+
+    static final int CHUNK = 1024;
+
+    private final EvaluationEngine engine;
+    private final int parallelism;
+
+    public SensitivityAnalysis(EvaluationEngine engine, int parallelism) {
+        this.engine = engine;
+        this.parallelism = parallelism;
+    }
+
+    // judgments[0]为R1，其余依次为R2..R8
+    public SensitivityResult run(double[][] data, double[][][] judgments, double band, int trials, long seed) {
+        return run(data, IndicatorHierarchy.twoLevel(judgments, engine.posIndicators(), engine.negIndicators()),
+                band, trials, seed);
+    }
+
+    public SensitivityResult run(double[][] data, IndicatorHierarchy hierarchy, double band, int trials, long seed) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("技术评价数据为空");
+        }
+        if (trials <= 0) {
+            throw new IllegalArgumentException("试验次数必须为正数: " + trials);
+        }
+        // 未填写的元素先补全，扰动在补全后的矩阵上进行
+        double[][][] judgments = hierarchy.judgments().clone();
+        for (int m = 0; m < judgments.length; m++) {
+            judgments[m] = EvaluationEngine.completeMatrix(judgments[m]);
+        }
+        WeightPlan basePlan = hierarchy.compile();
+        ColumnMatrix A = engine.normalize(ColumnMatrix.fromRows(data));
+        if (A.cols() != basePlan.size()) {
+            throw new IllegalArgumentException(
+                    "数据列数(" + A.cols() + ")与综合权重个数(" + basePlan.size() + ")不一致");
+        }
+        double[] means = new double[A.cols()];
+        ScoringKernel.columnMeans(A, means);
+
+        double[] baseScores = new double[A.rows()];
+        ScoringKernel.score(A, 0, A.rows(), means, basePlan.weightsArray(), engine.alpha(), engine.beta(), baseScores);
+        int[] baseRanking = Ranking.sortDescending(baseScores);
+
+        // 每块一个独立的随机数流
+        int chunks = (trials + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+
+        int workers = Math.max(1, Math.min(parallelism, chunks));
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<Callable<SensitivityResult.Histogram>> tasks = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int worker = w;
+                tasks.add(() -> new Worker(A, means, basePlan, judgments, band, baseRanking)
+                        .run(worker, workers, trials, streams));
+            }
+            SensitivityResult.Histogram histogram = new SensitivityResult.Histogram(baseRanking);
+            for (Future<SensitivityResult.Histogram> f : pool.invokeAll(tasks)) {
+                histogram.merge(f.get());
+            }
+            return new SensitivityResult(baseScores, baseRanking, histogram, trials, band);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("灵敏度分析被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("灵敏度分析出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 成对扰动：r_ij += d，r_ji -= d，d截断到使两者都落在[0,1]内
+    static void perturb(double[][] src, double[][] dst, double band, SplittableRandom rng) {
+        int n = src.length;
+        for (int i = 0; i < n; i++) {
+            dst[i][i] = src[i][i];
+            for (int j = i + 1; j < n; j++) {
+                double r = src[i][j];
+                double c = src[j][i];
+                double d = band > 0 ? rng.nextDouble(-band, band) : 0;
+                d = Math.max(d, Math.max(-r, c - 1));
+                d = Math.min(d, Math.min(1 - r, c));
+                dst[i][j] = r + d;
+                dst[j][i] = c - d;
+            }
+        }
+    }
+
+    // 单个工作线程：所有缓冲区只分配一次，在本线程负责的各块试验间复用
+    private final class Worker {
+        private final ColumnMatrix A;
+        private final double[] means;
+        private final WeightPlan plan;
+        private final double[][][] judgments;
+        private final double band;
+
+        private final double[][][] perturbed;
+        private final double[][] xi;
+        private final double[][][] Q;
+        private final double[][] groupWeights;
+        private final double[] weights;
+        private final double[] scores;
+        private final int[] order;
+        private final int[] tmp;
+        private final SensitivityResult.Histogram histogram;
+
+        Worker(ColumnMatrix A, double[] means, WeightPlan plan, double[][][] judgments, double band,
+               int[] baseRanking) {
+            this.A = A;
+            this.means = means;
+            this.plan = plan;
+            this.judgments = judgments;
+            this.band = band;
+            int k = judgments.length;
+            perturbed = new double[k][][];
+            xi = new double[k][];
+            Q = new double[k][][];
+            groupWeights = new double[k][];
+            for (int m = 0; m < k; m++) {
+                int size = judgments[m].length;
+                perturbed[m] = new double[size][size];
+                xi[m] = new double[size];
+                Q[m] = size <= WeightPlan.DIRECT_THRESHOLD ? new double[size][size] : null;
+                groupWeights[m] = new double[size];
+            }
+            int n = A.rows();
+            weights = new double[A.cols()];
+            scores = new double[n];
+            order = new int[n];
+            tmp = new int[n];
+            histogram = new SensitivityResult.Histogram(baseRanking);
+        }
+
+        SensitivityResult.Histogram run(int worker, int workers, int trials, SplittableRandom[] streams) {
+            int n = A.rows();
+            for (int c = worker; c < streams.length; c += workers) {
+                SplittableRandom rng = streams[c];
+                int end = Math.min(trials, (c + 1) * CHUNK);
+                for (int t = c * CHUNK; t < end; t++) {
+                    for (int m = 0; m < judgments.length; m++) {
+                        perturb(judgments[m], perturbed[m], band, rng);
+                        WeightPlan.deriveWeights(perturbed[m], xi[m], Q[m], groupWeights[m]);
+                    }
+                    plan.combine(groupWeights, weights);
+
+                    ScoringKernel.score(A, 0, n, means, weights, engine.alpha(), engine.beta(), scores);
+                    Ranking.sortDescending(scores, n, order, tmp);
+                    histogram.add(order);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    public static void main(String[] args) {
+        int trials = 10000;
+        double band = 0.05;
+        long seed = 42;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String file = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--trials") && i + 1 < args.length) {
+                    trials = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--band") && i + 1 < args.length) {
+                    band = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--seed") && i + 1 < args.length) {
+                    seed = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                    parallelism = Integer.parseInt(args[++i]);
+                } else {
+                    file = args[i];
+                }
+            }
+        } catch (NumberFormatException e) {
+            file = null;
+        }
+        if (file == null) {
+            System.err.println("用法: java Main --sensitivity [--trials 次数] [--band 扰动幅度] [--seed 种子] [--parallel 并行度] 场景文件");
+            System.exit(2);
+        }
+
+        try {
+            Scenario scenario = Scenario.open(Paths.get(file));
+            long start = System.nanoTime();
+            SensitivityResult result = new SensitivityAnalysis(scenario.engine(), parallelism)
+                    .run(scenario.getData(), scenario.getHierarchy(), band, trials, seed);
+            System.out.print(result.formatReport());
+            System.err.printf("%d次试验用时 %.1f ms%n", trials, (System.nanoTime() - start) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("灵敏度分析出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
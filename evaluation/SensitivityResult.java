@@ -0,0 +1,177 @@
+package evaluation;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+
+// 灵敏度分析结果：各技术在全部试验中的名次分布
+public class SensitivityResult {
+
+    // 名次分布：每项技术只逐名统计以未扰动名次为中心、宽WINDOW的窗口，窗口外的试验只计入窗口之前/之后的次数；
+    // 另记排名第一的次数、名次之和与最好/最差名次。扰动后名次通常在未扰动名次附近，90%名次区间多落在窗口内。
+    // 每项技术WINDOW + 6个计数，内存与技术数成线性关系（逐名计数需要N²个，数万项技术时每个工作线程即需数GB）。
+    // 技术数不超过WINDOW时分布是精确的
+    static final class Histogram {
+        static final int WINDOW = 128;
+
+        final int n;
+        final int width;
+        final int[] lo;
+        final int[] counts;
+        final int[] below;
+        final int[] above;
+        final int[] first;
+        final long[] rankSums;
+        final int[] best;
+        final int[] worst;
+
+        // baseRanking为未扰动时的排名（技术下标，从0开始）
+        Histogram(int[] baseRanking) {
+            n = baseRanking.length;
+            width = Math.min(n, WINDOW);
+            lo = new int[n];
+            for (int rank = 0; rank < n; rank++) {
+                lo[baseRanking[rank]] = Math.max(0, Math.min(rank - width / 2, n - width));
+            }
+            try {
+                counts = new int[Math.multiplyExact(n, width)];
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("技术数过多(" + n + ")，无法分配名次分布");
+            }
+            below = new int[n];
+            above = new int[n];
+            first = new int[n];
+            rankSums = new long[n];
+            best = new int[n];
+            worst = new int[n];
+            Arrays.fill(best, n);
+            Arrays.fill(worst, -1);
+        }
+
+        // order为一次试验的排名（技术下标，从0开始）
+        void add(int[] order) {
+            first[order[0]]++;
+            for (int rank = 0; rank < n; rank++) {
+                int t = order[rank];
+                int k = rank - lo[t];
+                if (k < 0) {
+                    below[t]++;
+                } else if (k >= width) {
+                    above[t]++;
+                } else {
+                    counts[t * width + k]++;
+                }
+                rankSums[t] += rank;
+                if (rank < best[t]) best[t] = rank;
+                if (rank > worst[t]) worst[t] = rank;
+            }
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            for (int t = 0; t < n; t++) {
+                below[t] += other.below[t];
+                above[t] += other.above[t];
+                first[t] += other.first[t];
+                rankSums[t] += other.rankSums[t];
+                best[t] = Math.min(best[t], other.best[t]);
+                worst[t] = Math.max(worst[t], other.worst[t]);
+            }
+        }
+    }
+
+    private final double[] baseScores;
+    private final int[] baseRanking;
+    private final Histogram histogram;
+    private final int trials;
+    private final double band;
+    private final int n;
+
+    SensitivityResult(double[] baseScores, int[] baseRanking, Histogram histogram, int trials, double band) {
+        this.baseScores = baseScores;
+        this.baseRanking = baseRanking;
+        this.histogram = histogram;
+        this.trials = trials;
+        this.band = band;
+        this.n = baseScores.length;
+    }
+
+    public int getTrials() {
+        return trials;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // 技术technology（从0开始）排在第rank名（从0开始）的试验次数；只有未扰动名次附近的名次逐名计数，
+    // 范围之外时抛出IllegalArgumentException
+    public int rankCount(int technology, int rank) {
+        if (rank == 0) return histogram.first[technology];
+        int k = rank - histogram.lo[technology];
+        if (k < 0 || k >= histogram.width) {
+            throw new IllegalArgumentException("名次" + (rank + 1) + "超出装备" + (technology + 1) + "的逐名计数范围(第"
+                    + (histogram.lo[technology] + 1) + "~" + (histogram.lo[technology] + histogram.width) + "名)");
+        }
+        return histogram.counts[technology * histogram.width + k];
+    }
+
+    // 排名第一的概率
+    public double firstProbability(int technology) {
+        return (double) histogram.first[technology] / trials;
+    }
+
+    // 平均名次（从1开始）
+    public double meanRank(int technology) {
+        return (double) histogram.rankSums[technology] / trials + 1;
+    }
+
+    // 全部试验中的最好名次（从1开始）
+    public int bestRank(int technology) {
+        return histogram.best[technology] + 1;
+    }
+
+    // 全部试验中的最差名次（从1开始）
+    public int worstRank(int technology) {
+        return histogram.worst[technology] + 1;
+    }
+
+    // 名次分布的分位数（从1开始），q取值0..1。落在逐名计数范围之前/之后时取最好/最差名次，区间只会偏宽
+    public int rankQuantile(int technology, double q) {
+        long target = Math.max(1, (long) Math.ceil(q * trials));
+        long seen = histogram.below[technology];
+        if (seen >= target) return bestRank(technology);
+        int base = technology * histogram.width;
+        for (int k = 0; k < histogram.width; k++) {
+            seen += histogram.counts[base + k];
+            if (seen >= target) return histogram.lo[technology] + k + 1;
+        }
+        return worstRank(technology);
+    }
+
+    // 未扰动时的排名（技术下标，从0开始）
+    public int[] getBaseRanking() {
+        return baseRanking.clone();
+    }
+
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        DecimalFormat df = new DecimalFormat("0.0000");
+        DecimalFormat pf = new DecimalFormat("0.00");
+        sb.append("=== 判断矩阵灵敏度分析 (").append(trials).append("次试验, 扰动幅度±")
+                .append(band).append(") ===\n\n");
+        for (int r = 0; r < n; r++) {
+            int t = baseRanking[r];
+            sb.append(String.format("第%d名: 装备%-2d | 效能值: %s | 排名第一概率: %s%% | 平均名次: %s | 90%%名次区间: [%d, %d]\n",
+                    r + 1,
+                    t + 1,
+                    df.format(baseScores[t]),
+                    pf.format(100 * firstProbability(t)),
+                    pf.format(meanRank(t)),
+                    rankQuantile(t, 0.05),
+                    rankQuantile(t, 0.95)));
+        }
+        return sb.toString();
+    }
+}
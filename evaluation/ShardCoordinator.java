@@ -0,0 +1,285 @@
+package evaluation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// 分片评估的协调进程：数据矩阵按行分成若干分片，各由一个工作进程（ShardWorker）持有
+//
+// 全局量都可以合并：归一化只需列最小/最大值，偏离度只需归一化后的列均值（由原始列均值推出，
+// 见ColumnStats）。因此一次评估只需两轮通信：
+//   1. 协调进程向所有工作进程发送评估请求（综合权重、正负指标、α、β、K），各工作进程统计本分片
+//      的ColumnStats后返回
+//   2. 协调进程按工作进程顺序合并统计量，连同各分片的起始行号发回；各工作进程用全局统计量评分，
+//      返回本分片的行数和前K名，协调进程合并为全局前K名
+// 请求先发给全部工作进程再依次读取回复，各分片并行计算。行号按工作进程的顺序连续编号，
+// 与把各分片依次拼接后在单进程中评估的行号一致。
+//
+// 协议（DataOutputStream，大端序）：
+//   请求  int魔数"EVSH"，int版本号，int列数n，n个double权重，int正指标个数及下标，int负指标个数及下标，
+//         double α，double β，int K
+//   回复  byte状态（0成功，1出错后跟writeUTF错误信息），成功时为ColumnStats.writeTo
+//   请求  long起始行号，合并后的ColumnStats
+//   回复  byte状态，成功时为long行数，TopK.writeTo
+//
+// 用法: java Main --shard [--top K] [--alpha α] [--beta β] 场景文件 主机:端口...
+// 正负指标和偏离度参数取自场景文件，--alpha/--beta覆盖场景文件中的偏离度参数
+public class ShardCoordinator {
+    static final int MAGIC = 0x45565348; // "EVSH"
+    static final int VERSION = 1;
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+    static final int MAX_COLS = 1 << 20;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    private final List<InetSocketAddress> workers;
+
+    public ShardCoordinator(List<InetSocketAddress> workers) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个工作进程");
+        }
+        this.workers = new ArrayList<>(workers);
+    }
+
+    // 评估请求
+    static final class Request {
+        final double[] weights;
+        final int[] pos;
+        final int[] neg;
+        final double alpha;
+        final double beta;
+        final int k;
+
+        Request(double[] weights, int[] pos, int[] neg, double alpha, double beta, int k) {
+            this.weights = weights;
+            this.pos = pos;
+            this.neg = neg;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.k = k;
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(weights.length);
+            for (double w : weights) out.writeDouble(w);
+            writeInts(out, pos);
+            writeInts(out, neg);
+            out.writeDouble(alpha);
+            out.writeDouble(beta);
+            out.writeInt(k);
+        }
+
+        static Request readFrom(DataInput in) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("不是分片评估请求");
+            }
+            int n = readLength(in, MAX_COLS);
+            double[] weights = new double[n];
+            for (int j = 0; j < n; j++) weights[j] = in.readDouble();
+            int[] pos = readInts(in);
+            int[] neg = readInts(in);
+            double alpha = in.readDouble();
+            double beta = in.readDouble();
+            int k = readLength(in, Integer.MAX_VALUE);
+            return new Request(weights, pos, neg, alpha, beta, k);
+        }
+
+        private static void writeInts(DataOutput out, int[] values) throws IOException {
+            out.writeInt(values.length);
+            for (int v : values) out.writeInt(v);
+        }
+
+        private static int[] readInts(DataInput in) throws IOException {
+            int[] values = new int[readLength(in, MAX_COLS)];
+            for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+            return values;
+        }
+
+        private static int readLength(DataInput in, int max) throws IOException {
+            int n = in.readInt();
+            if (n < 0 || n > max) {
+                throw new IOException("无效的长度: " + n);
+            }
+            return n;
+        }
+    }
+
+    static void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(ERROR);
+        out.writeUTF(message == null ? "未知错误" : message);
+        out.flush();
+    }
+
+    // 读取回复状态，出错时抛出带工作进程地址的IOException
+    private static void checkStatus(DataInputStream in, InetSocketAddress worker) throws IOException {
+        byte status = in.readByte();
+        if (status == ERROR) {
+            throw new IOException(worker + ": " + in.readUTF());
+        }
+        if (status != OK) {
+            throw new IOException(worker + ": 无效的回复状态 " + status);
+        }
+    }
+
+    // 分片评估的结果：总行数和全局前K名
+    public static final class Result {
+        private final long rows;
+        private final TopK top;
+        private final ColumnStats stats;
+
+        Result(long rows, TopK top, ColumnStats stats) {
+            this.rows = rows;
+            this.top = top;
+            this.stats = stats;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public TopK top() {
+            return top;
+        }
+
+        // 合并后的全局列统计量
+        public ColumnStats stats() {
+            return stats;
+        }
+    }
+
+    public Result evaluate(EvaluationEngine engine, WeightPlan plan, int k) throws IOException {
+        Request request = new Request(plan.weightsArray(), engine.posIndicators(), engine.negIndicators(),
+                engine.alpha(), engine.beta(), k);
+        int n = workers.size();
+        Socket[] sockets = new Socket[n];
+        DataInputStream[] in = new DataInputStream[n];
+        DataOutputStream[] out = new DataOutputStream[n];
+        try {
+            // 第一轮：发送请求，收集各分片统计量
+            for (int s = 0; s < n; s++) {
+                sockets[s] = new Socket();
+                sockets[s].setTcpNoDelay(true);
+                try {
+                    sockets[s].connect(workers.get(s), CONNECT_TIMEOUT_MILLIS);
+                } catch (IOException e) {
+                    throw new IOException(workers.get(s) + ": 无法连接工作进程（" + e.getMessage() + "）", e);
+                }
+                in[s] = new DataInputStream(new BufferedInputStream(sockets[s].getInputStream()));
+                out[s] = new DataOutputStream(new BufferedOutputStream(sockets[s].getOutputStream()));
+                request.writeTo(out[s]);
+                out[s].flush();
+            }
+            PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.STATS);
+            ColumnStats global = new ColumnStats(plan.size());
+            long[] offsets = new long[n];
+            for (int s = 0; s < n; s++) {
+                checkStatus(in[s], workers.get(s));
+                ColumnStats local = ColumnStats.readFrom(in[s], MAX_COLS);
+                if (local.cols() != plan.size()) {
+                    throw new IOException(workers.get(s) + ": 分片列数(" + local.cols() + ")与综合权重个数(" + plan.size() + ")不一致");
+                }
+                offsets[s] = global.count();
+                global.merge(local);
+            }
+            if (global.count() == 0) {
+                throw new IOException("各分片都没有技术评价数据");
+            }
+            timer.stop(global.count());
+
+            // 第二轮：下发全局统计量，合并各分片的前K名
+            timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+            for (int s = 0; s < n; s++) {
+                out[s].writeLong(offsets[s]);
+                global.writeTo(out[s]);
+                out[s].flush();
+            }
+            TopK top = new TopK(k);
+            long rows = 0;
+            for (int s = 0; s < n; s++) {
+                checkStatus(in[s], workers.get(s));
+                rows += in[s].readLong();
+                top.acceptFrom(in[s]);
+            }
+            timer.stop(rows);
+            PipelineMetrics.addRows(rows);
+            return new Result(rows, top, global);
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) socket.close();
+            }
+        }
+    }
+
+    static InetSocketAddress parseAddress(String text) {
+        int colon = text.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress("127.0.0.1", Integer.parseInt(text));
+        }
+        return new InetSocketAddress(text.substring(0, colon), Integer.parseInt(text.substring(colon + 1)));
+    }
+
+    public static void main(String[] args) {
+        int top = 10;
+        Double alpha = null;
+        Double beta = null;
+        String scenarioFile = null;
+        List<InetSocketAddress> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--top") && i + 1 < args.length) {
+                    top = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--alpha") && i + 1 < args.length) {
+                    alpha = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--beta") && i + 1 < args.length) {
+                    beta = Double.parseDouble(args[++i]);
+                } else if (scenarioFile == null) {
+                    scenarioFile = args[i];
+                } else {
+                    workers.add(parseAddress(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            workers.clear();
+        }
+        if (workers.isEmpty() || top <= 0) {
+            System.err.println("用法: java Main --shard [--top K] [--alpha α] [--beta β] 场景文件 主机:端口...");
+            System.exit(2);
+        }
+
+        try {
+            EvaluationEngine engine = Scenario.readEngine(Paths.get(scenarioFile));
+            if (alpha != null || beta != null) {
+                engine = engine.withDeviationParameters(alpha != null ? alpha : engine.alpha(),
+                        beta != null ? beta : engine.beta());
+            }
+            WeightPlan plan = Scenario.readHierarchy(Paths.get(scenarioFile)).compile();
+            long start = System.nanoTime();
+            Result result = new ShardCoordinator(workers).evaluate(engine, plan, top);
+            long[] ids = new long[top];
+            double[] scores = new double[top];
+            int n = result.top().sorted(ids, scores);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                sb.append(i + 1).append('\t').append(ids[i] + 1).append('\t').append(scores[i]).append('\n');
+            }
+            System.out.print(sb);
+            System.err.printf("%d个分片共 %d 行，用时 %.1f ms%n", workers.size(), result.rows(),
+                    (System.nanoTime() - start) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("分片评估出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
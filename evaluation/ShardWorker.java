@@ -0,0 +1,196 @@
+package evaluation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 分片评估的工作进程：持有数据矩阵的一个分片（CSV、二进制行文件或列文件），按协调进程的请求
+// 统计本分片的列统计量、用合并后的全局统计量评分，并返回本分片的前K名
+//
+// 一个连接对应一次评估，每个连接在单独的线程中处理：协调进程在两轮之间保持所有分片的连接，
+// 多个协调进程共用工作进程时若逐个处理，各自占住不同的分片后会互相等待到读超时。
+// 分片的列统计量只与数据有关，第一次请求时统计后缓存，之后的请求（如判断矩阵不同）只需第二遍。
+// 列文件的映射只按绝对位置读取，可由多个连接同时评分。协议见ShardCoordinator。
+// 请求无效或计算出错时向协调进程回复错误信息，不影响之后的连接；连接上超过读超时没有收到数据时断开，
+// 避免停滞的协调进程一直占用工作进程。两轮之间要等待最慢的分片完成第一遍，读超时应大于其耗时。
+//
+// 用法: java Main --shard-worker [--bind 地址] [--port 端口] [--timeout 秒] 分片文件
+public class ShardWorker {
+    public static final int DEFAULT_PORT = 9300;
+    public static final int DEFAULT_TIMEOUT_SECONDS = 600;
+
+    private final Path shard;
+    // 列文件时为其映射，否则为null（按行流式读取）
+    private final OffHeapMatrix columns;
+    private ColumnStats localStats;
+
+    public ShardWorker(Path shard) throws IOException {
+        this.shard = shard;
+        this.columns = OffHeapMatrix.isColumnFile(shard) ? OffHeapMatrix.map(shard, false) : null;
+    }
+
+    // 本分片的列统计量（第一遍），只计算一次；同时到达的请求等待同一次统计
+    synchronized ColumnStats localStats(EvaluationEngine engine, WeightPlan plan) throws IOException {
+        if (localStats == null) {
+            localStats = columns != null ? columns.stats() : new StreamingEvaluator(engine, plan).collectStats(shard);
+        }
+        if (localStats.cols() != plan.size()) {
+            throw new IllegalArgumentException(
+                    shard + ": 数据列数(" + localStats.cols() + ")与综合权重个数(" + plan.size() + ")不一致");
+        }
+        return localStats;
+    }
+
+    // 用全局统计量评分，行号加上offset后累积到top
+    long score(EvaluationEngine engine, WeightPlan plan, ColumnStats global, long offset, TopK top) throws IOException {
+        if (columns != null) {
+            double[] out = engine.score(columns, plan, global, new double[columns.rows()]);
+            for (int i = 0; i < out.length; i++) {
+                top.accept(offset + i, out[i]);
+            }
+            return out.length;
+        }
+        return new StreamingEvaluator(engine, plan).score(shard, global, (row, score) -> top.accept(offset + row, score));
+    }
+
+    // 正负指标下标必须在数据列范围内
+    static void checkIndicators(int[] indices, int cols) {
+        for (int j : indices) {
+            if (j < 0 || j >= cols) {
+                throw new IllegalArgumentException("正负指标下标" + j + "超出范围[0, " + cols + ")");
+            }
+        }
+    }
+
+    // 处理一次评估请求
+    void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        ShardCoordinator.Request request = ShardCoordinator.Request.readFrom(in);
+
+        ColumnStats local;
+        EvaluationEngine engine;
+        WeightPlan plan;
+        try {
+            checkIndicators(request.pos, request.weights.length);
+            checkIndicators(request.neg, request.weights.length);
+            engine = new EvaluationEngine(request.pos, request.neg, request.alpha, request.beta);
+            plan = WeightPlan.fixed(request.weights);
+            local = localStats(engine, plan);
+        } catch (IOException | RuntimeException e) {
+            ShardCoordinator.writeError(out, e.getMessage());
+            return;
+        }
+        out.writeByte(ShardCoordinator.OK);
+        local.writeTo(out);
+        out.flush();
+
+        long offset = in.readLong();
+        ColumnStats global = ColumnStats.readFrom(in, ShardCoordinator.MAX_COLS);
+        // 本分片最多返回全部行，避免按请求中的K预先分配过大的堆
+        TopK top = new TopK((int) Math.min(request.k, local.count()));
+        long rows;
+        try {
+            if (global.cols() != plan.size()) {
+                throw new IllegalArgumentException(
+                        "全局统计量列数(" + global.cols() + ")与综合权重个数(" + plan.size() + ")不一致");
+            }
+            rows = score(engine, plan, global, offset, top);
+        } catch (IOException | RuntimeException e) {
+            ShardCoordinator.writeError(out, e.getMessage());
+            return;
+        }
+        out.writeByte(ShardCoordinator.OK);
+        out.writeLong(rows);
+        top.writeTo(out);
+        out.flush();
+    }
+
+    // 接受连接直到服务套接字关闭，每个连接在单独的线程中处理；timeoutMillis为每个连接的读超时，0为不限
+    public void run(ServerSocket server, int timeoutMillis) throws IOException {
+        ExecutorService connections = Executors.newCachedThreadPool();
+        try {
+            while (true) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (IOException e) {
+                    if (server.isClosed()) {
+                        throw e;
+                    }
+                    System.err.println("接受连接出错: " + e);
+                    continue;
+                }
+                connections.execute(() -> handle(socket, timeoutMillis));
+            }
+        } finally {
+            connections.shutdown();
+        }
+    }
+
+    // 处理一个连接，出错只影响该连接
+    private void handle(Socket socket, int timeoutMillis) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis);
+            long start = System.nanoTime();
+            serve(socket);
+            System.err.printf("%s 的请求用时 %.1f ms%n", socket.getRemoteSocketAddress(),
+                    (System.nanoTime() - start) / 1e6);
+        } catch (EOFException e) {
+            System.err.println("协调进程提前断开连接");
+        } catch (SocketTimeoutException e) {
+            System.err.println("协调进程超过读超时未发送数据，已断开连接");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("处理请求出错: " + e);
+        }
+    }
+
+    public static void main(String[] args) {
+        String bind = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        int timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+        Path shard = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--bind") && i + 1 < args.length) {
+                    bind = args[++i];
+                } else if (args[i].equals("--port") && i + 1 < args.length) {
+                    port = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--timeout") && i + 1 < args.length) {
+                    timeoutSeconds = Integer.parseInt(args[++i]);
+                } else {
+                    shard = Paths.get(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            shard = null;
+        }
+        if (shard == null || timeoutSeconds < 0 || timeoutSeconds > Integer.MAX_VALUE / 1000) {
+            System.err.println("用法: java Main --shard-worker [--bind 地址] [--port 端口] [--timeout 秒] 分片文件");
+            System.exit(2);
+        }
+
+        try (ServerSocket server = new ServerSocket()) {
+            ShardWorker worker = new ShardWorker(shard);
+            server.bind(new InetSocketAddress(InetAddress.getByName(bind), port));
+            System.err.println("分片 " + shard + " 在 " + server.getLocalSocketAddress() + " 等待协调进程");
+            worker.run(server, timeoutSeconds * 1000);
+        } catch (IOException e) {
+            System.err.println("分片工作进程出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package evaluation;
+
+import java.util.Arrays;
+
+// 稀疏判断矩阵：只保存已填写的元素(i, j, r_ij)，内存与已填写元素个数成正比
+//
+// 未填写的元素按互补关系推断：r_ji已填写时r_ij = 1 - r_ji，否则（包括对角线）取0.5，
+// 与EvaluationEngine.rowSums对NaN元素的处理一致。排序向量只依赖行和，
+// 因此rowSums和weights只需O(n + m log m)时间（m为已填写元素个数），不构造n×n矩阵。
+public final class SparseJudgment {
+    private final int n;
+    // 按(i, j)升序排列的已填写元素，键为 i << 32 | j
+    private final long[] keys;
+    private final double[] values;
+
+    // rows、cols为从0开始的下标，同一位置重复出现时后出现的生效
+    public SparseJudgment(int n, int[] rows, int[] cols, double[] values) {
+        if (rows.length != cols.length || rows.length != values.length) {
+            throw new IllegalArgumentException("行下标、列下标和元素值的个数不一致");
+        }
+        this.n = n;
+        int count = rows.length;
+        long[] packed = new long[count];
+        for (int e = 0; e < count; e++) {
+            int i = rows[e];
+            int j = cols[e];
+            if (i < 0 || i >= n || j < 0 || j >= n) {
+                throw new IllegalArgumentException("元素(" + (i + 1) + ", " + (j + 1) + ")超出阶数" + n);
+            }
+            if (!(values[e] >= 0 && values[e] <= 1)) {
+                throw new IllegalArgumentException("元素(" + (i + 1) + ", " + (j + 1) + ")的值应在[0, 1]内: " + values[e]);
+            }
+            packed[e] = key(i, j);
+        }
+
+        // 按键排序，同一键保留最后出现的值
+        Integer[] order = new Integer[count];
+        for (int e = 0; e < count; e++) order[e] = e;
+        Arrays.sort(order, (a, b) -> packed[a] != packed[b] ? Long.compare(packed[a], packed[b]) : Integer.compare(a, b));
+        long[] k = new long[count];
+        double[] v = new double[count];
+        int m = 0;
+        for (int e = 0; e < count; e++) {
+            int src = order[e];
+            if (m > 0 && k[m - 1] == packed[src]) {
+                v[m - 1] = values[src];
+            } else {
+                k[m] = packed[src];
+                v[m] = values[src];
+                m++;
+            }
+        }
+        this.keys = Arrays.copyOf(k, m);
+        this.values = Arrays.copyOf(v, m);
+    }
+
+    // 由稠密矩阵构造，NaN元素视为未填写
+    public static SparseJudgment fromMatrix(double[][] matrix) {
+        int n = matrix.length;
+        int count = 0;
+        for (double[] row : matrix) {
+            for (double r : row) {
+                if (r == r) count++;
+            }
+        }
+        int[] rows = new int[count];
+        int[] cols = new int[count];
+        double[] values = new double[count];
+        int e = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (matrix[i][j] == matrix[i][j]) {
+                    rows[e] = i;
+                    cols[e] = j;
+                    values[e++] = matrix[i][j];
+                }
+            }
+        }
+        return new SparseJudgment(n, rows, cols, values);
+    }
+
+    private static long key(int i, int j) {
+        return (long) i << 32 | j;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // 已填写的元素个数
+    public int filled() {
+        return keys.length;
+    }
+
+    // 第(i, j)个元素，未填写时按互补关系推断
+    public double get(int i, int j) {
+        int e = Arrays.binarySearch(keys, key(i, j));
+        if (e >= 0) return values[e];
+        if (i == j) return 0.5;
+        int t = Arrays.binarySearch(keys, key(j, i));
+        return t >= 0 ? 1 - values[t] : 0.5;
+    }
+
+    // 行和x_i：每行先按全部为0.5计，再对已填写元素及其推断出的互补元素做修正
+    public double[] rowSums(double[] xi) {
+        Arrays.fill(xi, 0, n, 0.5 * n);
+        for (int e = 0; e < keys.length; e++) {
+            int i = (int) (keys[e] >>> 32);
+            int j = (int) keys[e];
+            xi[i] += values[e] - 0.5;
+            // r_ji未填写时取1 - r_ij
+            if (i != j && Arrays.binarySearch(keys, key(j, i)) < 0) {
+                xi[j] += 0.5 - values[e];
+            }
+        }
+        return xi;
+    }
+
+    // 排序向量，见EvaluationEngine.rankingVectorFromRowSums
+    public double[] weights() {
+        return EvaluationEngine.rankingVectorFromRowSums(rowSums(new double[n]), new double[n]);
+    }
+
+    // 补全后的稠密矩阵
+    public double[][] toMatrix() {
+        double[][] matrix = new double[n][n];
+        for (double[] row : matrix) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (int e = 0; e < keys.length; e++) {
+            matrix[(int) (keys[e] >>> 32)][(int) keys[e]] = values[e];
+        }
+        return EvaluationEngine.completeMatrix(matrix);
+    }
+}
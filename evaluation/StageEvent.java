@@ -0,0 +1,31 @@
+package evaluation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// 评估流水线一个阶段的JFR事件，由PipelineMetrics.Timer提交。未开启记录时begin/commit几乎没有开销
+//
+// 记录: java -XX:StartFlightRecording=filename=eval.jfr,settings=profile Main --batch ...
+// 查看: jfr print --events evaluation.Stage eval.jfr
+@Name("evaluation.Stage")
+@Label("评估阶段")
+@Category("效能评估")
+@Description("评估流水线中一个阶段的耗时")
+@StackTrace(false)
+final class StageEvent extends Event {
+
+    @Label("阶段")
+    String stage;
+
+    @Label("行数")
+    long rows;
+
+    @Label("字节数")
+    @DataAmount
+    long bytes;
+}
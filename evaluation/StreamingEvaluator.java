@@ -0,0 +1,186 @@
+package evaluation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// 流式两遍评估：数据文件大于堆内存时使用，内存占用与行数无关
+//
+// 第一遍只累积各列最小值、最大值和累加和（ColumnStats），第二遍按块读取、归一化并评分，
+// 逐行输出效能值。列均值由原始均值推出，与内存计算结果相差在舍入误差范围内（约1e-12）。
+//
+// 用法: java Main --stream --judgments 场景文件 [--out 结果文件] [--alpha α] [--beta β] [--top K] 数据文件
+//       java Main --stream --to-binary 输出文件 CSV文件
+// 正负指标和偏离度参数取自场景文件，--alpha/--beta覆盖场景文件中的偏离度参数。指定--top时不输出逐行效能值，只用有界堆保留前K名，最后输出：名次 行号 效能值
+public class StreamingEvaluator {
+
+    // 接收第二遍输出的效能值，row从0开始
+    @FunctionalInterface
+    public interface ScoreSink {
+        void accept(long row, double score) throws IOException;
+    }
+
+    private final EvaluationEngine engine;
+    private final WeightPlan plan;
+
+    public StreamingEvaluator(EvaluationEngine engine, WeightPlan plan) {
+        this.engine = engine;
+        this.plan = plan;
+    }
+
+    // 两遍完成评估，返回行数
+    public long evaluate(Path input, ScoreSink sink) throws IOException {
+        return score(input, collectStats(input), sink);
+    }
+
+    // 第一遍：统计各列最小值、最大值和累加和
+    public ColumnStats collectStats(Path input) throws IOException {
+        try (RowReader reader = RowReader.open(input)) {
+            checkColumns(input, reader.cols());
+            PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.STATS);
+            ColumnStats stats = new ColumnStats(reader.cols());
+            double[] row = new double[reader.cols()];
+            while (reader.next(row)) {
+                stats.accept(row);
+            }
+            if (stats.count() == 0) {
+                throw new IOException(input + ": 没有技术评价数据");
+            }
+            timer.stop(stats.count());
+            return stats;
+        }
+    }
+
+    // 第二遍：按块读取、归一化并评分，返回行数
+    public long score(Path input, ColumnStats stats, ScoreSink sink) throws IOException {
+        int cols = plan.size();
+        int[] kinds = engine.polarity(cols);
+        double[] means = new double[cols];
+        stats.normalizedMeans(kinds, means);
+
+        int block = ScoringKernel.BLOCK;
+        ColumnMatrix chunk = new ColumnMatrix(block, cols);
+        double[] row = new double[cols];
+        double[] out = new double[block];
+        long rowIndex = 0;
+        // 第二遍的读取、归一化和评分交替进行，整体计入SCORE
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.SCORE);
+        try (RowReader reader = RowReader.open(input)) {
+            checkColumns(input, reader.cols());
+            while (true) {
+                int n = 0;
+                while (n < block && reader.next(row)) {
+                    for (int j = 0; j < cols; j++) {
+                        chunk.set(n, j, row[j]);
+                    }
+                    n++;
+                }
+                if (n == 0) break;
+
+                stats.normalize(chunk, n, kinds);
+                ScoringKernel.score(chunk, 0, n, means, plan.weightsArray(), engine.alpha(), engine.beta(), out);
+                for (int k = 0; k < n; k++) {
+                    sink.accept(rowIndex++, out[k]);
+                }
+                if (n < block) break;
+            }
+        }
+        timer.stop(rowIndex);
+        PipelineMetrics.addRows(rowIndex);
+        return rowIndex;
+    }
+
+    private void checkColumns(Path input, int cols) throws IOException {
+        if (cols != plan.size()) {
+            throw new IOException(input + ": 数据列数(" + cols + ")与综合权重个数(" + plan.size() + ")不一致");
+        }
+    }
+
+    public static void main(String[] args) {
+        Path judgmentsFile = null;
+        Path outFile = null;
+        Path binaryFile = null;
+        Path input = null;
+        Double alpha = null;
+        Double beta = null;
+        int top = 0;
+        boolean usage = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--judgments") && i + 1 < args.length) {
+                    judgmentsFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--alpha") && i + 1 < args.length) {
+                    alpha = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--beta") && i + 1 < args.length) {
+                    beta = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--out") && i + 1 < args.length) {
+                    outFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--to-binary") && i + 1 < args.length) {
+                    binaryFile = Paths.get(args[++i]);
+                } else if (args[i].equals("--top") && i + 1 < args.length) {
+                    top = Integer.parseInt(args[++i]);
+                } else {
+                    input = Paths.get(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage = true;
+        }
+        if (usage || input == null || (binaryFile == null && judgmentsFile == null)) {
+            System.err.println("用法: java Main --stream --judgments 场景文件 [--out 结果文件] [--alpha α] [--beta β] [--top K] 数据文件");
+            System.err.println("      java Main --stream --to-binary 输出文件 CSV文件");
+            System.exit(2);
+        }
+
+        try {
+            if (binaryFile != null) {
+                long rows;
+                try (RowReader reader = RowReader.open(input)) {
+                    rows = BinaryRowReader.write(reader, binaryFile);
+                }
+                System.err.println("已转换 " + rows + " 行到 " + binaryFile);
+                return;
+            }
+
+            EvaluationEngine engine = Scenario.readEngine(judgmentsFile);
+            if (alpha != null || beta != null) {
+                engine = engine.withDeviationParameters(alpha != null ? alpha : engine.alpha(),
+                        beta != null ? beta : engine.beta());
+            }
+            StreamingEvaluator evaluator = new StreamingEvaluator(engine, Scenario.readHierarchy(judgmentsFile).compile());
+            try (Writer w = outFile != null
+                    ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+                StringBuilder line = new StringBuilder();
+                long rows;
+                if (top > 0) {
+                    TopK best = new TopK(top);
+                    rows = evaluator.evaluate(input, best::accept);
+                    long[] ids = new long[best.size()];
+                    double[] scores = new double[best.size()];
+                    int n = best.sorted(ids, scores);
+                    for (int i = 0; i < n; i++) {
+                        line.append(i + 1).append('\t').append(ids[i] + 1).append('\t').append(scores[i]).append('\n');
+                    }
+                    w.append(line);
+                } else {
+                    rows = evaluator.evaluate(input, (row, score) -> {
+                        line.setLength(0);
+                        line.append(row + 1).append('\t').append(score).append('\n');
+                        w.append(line);
+                    });
+                }
+                w.flush();
+                System.err.println("已评估 " + rows + " 行");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("流式评估出错: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
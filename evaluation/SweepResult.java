@@ -0,0 +1,110 @@
+package evaluation;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+
+// 参数扫描结果：每个(α, β)网格点上的效能值和排名
+public class SweepResult {
+    // 报告中每个网格点最多列出的技术数
+    private static final int REPORT_TOP = 10;
+
+    private final double[] alphas;
+    private final double[] betas;
+    private final double baseAlpha;
+    private final double baseBeta;
+    private final double[] baseScores;
+    private final int[] baseRanking;
+    private final double[][] scores;
+    private final int[][] rankings;
+
+    SweepResult(double[] alphas, double[] betas, double baseAlpha, double baseBeta,
+                double[] baseScores, int[] baseRanking, double[][] scores, int[][] rankings) {
+        this.alphas = alphas;
+        this.betas = betas;
+        this.baseAlpha = baseAlpha;
+        this.baseBeta = baseBeta;
+        this.baseScores = baseScores;
+        this.baseRanking = baseRanking;
+        this.scores = scores;
+        this.rankings = rankings;
+    }
+
+    public double[] getAlphas() {
+        return alphas.clone();
+    }
+
+    public double[] getBetas() {
+        return betas.clone();
+    }
+
+    // 网格点(alphas[a], betas[b])上各技术的效能值
+    public double[] getScores(int a, int b) {
+        return scores[a * betas.length + b].clone();
+    }
+
+    // 网格点(alphas[a], betas[b])上的排名（技术下标，从0开始）
+    public int[] getRanking(int a, int b) {
+        return rankings[a * betas.length + b].clone();
+    }
+
+    // 排名与基准参数下不同的网格点数
+    public int changedRankings() {
+        int changed = 0;
+        for (int[] ranking : rankings) {
+            if (!Arrays.equals(ranking, baseRanking)) changed++;
+        }
+        return changed;
+    }
+
+    public String formatReport() {
+        DecimalFormat df = new DecimalFormat("0.0000");
+        DecimalFormat pf = new DecimalFormat("0.####");
+        int n = baseScores.length;
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== 偏离度参数扫描 (").append(alphas.length).append("个α × ")
+                .append(betas.length).append("个β) ===\n\n");
+        sb.append("基准参数 α=").append(pf.format(baseAlpha)).append(", β=").append(pf.format(baseBeta))
+                .append(": ").append(formatOrder(baseRanking)).append("\n\n");
+
+        for (int p = 0; p < rankings.length; p++) {
+            sb.append("α=").append(pf.format(alphas[p / betas.length]))
+                    .append(", β=").append(pf.format(betas[p % betas.length]))
+                    .append(Arrays.equals(rankings[p], baseRanking) ? "  " : " *")
+                    .append(" ").append(formatOrder(rankings[p])).append("\n");
+        }
+        sb.append("\n排名与基准不同的网格点（*）: ").append(changedRankings())
+                .append("/").append(rankings.length).append("\n\n");
+
+        // 各技术在网格上的效能值和名次范围
+        int[][] rankOf = new int[rankings.length][n];
+        for (int p = 0; p < rankings.length; p++) {
+            for (int r = 0; r < n; r++) {
+                rankOf[p][rankings[p][r]] = r + 1;
+            }
+        }
+        for (int r = 0; r < n; r++) {
+            int t = baseRanking[r];
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            int best = n, worst = 1;
+            for (int p = 0; p < rankings.length; p++) {
+                lo = Math.min(lo, scores[p][t]);
+                hi = Math.max(hi, scores[p][t]);
+                best = Math.min(best, rankOf[p][t]);
+                worst = Math.max(worst, rankOf[p][t]);
+            }
+            sb.append(String.format("第%d名: 装备%-2d | 效能值: %s | 网格上效能值: [%s, %s] | 名次: [%d, %d]\n",
+                    r + 1, t + 1, df.format(baseScores[t]), df.format(lo), df.format(hi), best, worst));
+        }
+        return sb.toString();
+    }
+
+    private static String formatOrder(int[] ranking) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < Math.min(ranking.length, REPORT_TOP); r++) {
+            if (r > 0) sb.append(" > ");
+            sb.append("装备").append(ranking[r] + 1);
+        }
+        if (ranking.length > REPORT_TOP) sb.append(" > ...");
+        return sb.toString();
+    }
+}
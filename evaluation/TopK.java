@@ -0,0 +1,131 @@
+package evaluation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// 有界堆：逐项累积，只保留效能值最高的k项，内存与总项数无关
+//
+// 排序规则与Ranking一致：效能值降序，相同时编号小的在前，因此结果确定。
+// 多个分片各自累积后可用merge合并。
+public final class TopK {
+    private final int capacity;
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k不能为负数: " + k);
+        }
+        capacity = k;
+        ids = new long[k];
+        scores = new double[k];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void accept(long id, double score) {
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (capacity > 0 && before(score, id, scores[0], ids[0])) {
+            // 替换堆顶（当前第k名）
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public void merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            accept(other.ids[i], other.scores[i]);
+        }
+    }
+
+    // 按项数、各项编号和效能值的顺序写出，供分片之间传输（不要求有序）
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(ids[i]);
+            out.writeDouble(scores[i]);
+        }
+    }
+
+    // 读入writeTo写出的各项并累积到本对象
+    public void acceptFrom(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) {
+            throw new IOException("无效的项数: " + n);
+        }
+        for (int i = 0; i < n; i++) {
+            long id = in.readLong();
+            accept(id, in.readDouble());
+        }
+    }
+
+    // 按名次顺序写出结果，返回项数；不改变本对象
+    public int sorted(long[] idsOut, double[] scoresOut) {
+        TopK copy = new TopK(capacity);
+        System.arraycopy(ids, 0, copy.ids, 0, size);
+        System.arraycopy(scores, 0, copy.scores, 0, size);
+        copy.size = size;
+        // 依次弹出堆顶（最差的一项），从后往前填
+        for (int i = size - 1; i >= 0; i--) {
+            idsOut[i] = copy.ids[0];
+            scoresOut[i] = copy.scores[0];
+            copy.size--;
+            copy.ids[0] = copy.ids[copy.size];
+            copy.scores[0] = copy.scores[copy.size];
+            copy.siftDown(0);
+        }
+        return size;
+    }
+
+    // (s1, id1)是否排在(s2, id2)之前
+    static boolean before(double s1, long id1, double s2, long id2) {
+        int c = Double.compare(s1, s2);
+        return c > 0 || (c == 0 && id1 < id2);
+    }
+
+    // 堆顶为最差的一项：父节点不排在子节点之前
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(scores[parent], ids[parent], scores[i], ids[i])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < size && before(scores[left], ids[left], scores[right], ids[right])) {
+                worst = right;
+            }
+            if (!before(scores[i], ids[i], scores[worst], ids[worst])) break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+    }
+}
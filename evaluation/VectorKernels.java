@@ -0,0 +1,212 @@
+package evaluation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// ColumnKernels的Vector API实现（jdk.incubator.vector），每次处理一个SIMD寄存器宽度的元素，尾部用标量循环
+//
+// 偏离度公式的两个分支都按向量计算，再按 a <= s_j 的掩码合并，避免逐元素分支。
+// 只由ColumnKernels反射加载；编译和运行都需要 --add-modules jdk.incubator.vector。
+final class VectorKernels implements ColumnKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // 通道数与SPECIES相同的float，位宽为其一半
+    private static final VectorSpecies<Float> FLOAT_SPECIES =
+            VectorSpecies.of(float.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+    private final ScalarKernels tail = new ScalarKernels();
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+    @Override
+    public void minMaxSum(double[] v, int from, int to, double[] stats) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        if (i < bound) {
+            DoubleVector lo = DoubleVector.broadcast(SPECIES, stats[0]);
+            DoubleVector hi = DoubleVector.broadcast(SPECIES, stats[1]);
+            DoubleVector s = DoubleVector.zero(SPECIES);
+            for (; i < bound; i += SPECIES.length()) {
+                DoubleVector x = DoubleVector.fromArray(SPECIES, v, i);
+                lo = lo.min(x);
+                hi = hi.max(x);
+                s = s.add(x);
+            }
+            stats[0] = lo.reduceLanes(VectorOperators.MIN);
+            stats[1] = hi.reduceLanes(VectorOperators.MAX);
+            stats[2] += s.reduceLanes(VectorOperators.ADD);
+        }
+        tail.minMaxSum(v, i, to, stats);
+    }
+
+    @Override
+    public double sum(double[] v, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            s = s.add(DoubleVector.fromArray(SPECIES, v, i));
+        }
+        return s.reduceLanes(VectorOperators.ADD) + tail.sum(v, i, to);
+    }
+
+    @Override
+    public double scale(double[] in, int base, double[] out, int target, int n, double lo, double hi, boolean positive) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        double range = hi - lo;
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, in, base + k);
+            DoubleVector y = positive ? x.sub(lo).div(range) : DoubleVector.broadcast(SPECIES, hi).sub(x).div(range);
+            y.intoArray(out, target + k);
+            s = s.add(y);
+        }
+        return s.reduceLanes(VectorOperators.ADD)
+                + tail.scale(in, base + k, out, target + k, n - k, lo, hi, positive);
+    }
+
+    @Override
+    public void deviation(double[] v, int base, int n, double mean, double w, double alpha, double beta,
+                          double[] dynamic, int d, double[] sums) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        double low = alpha + mean;
+        double high = beta + mean;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, v, base + k);
+            VectorMask<Double> below = a.compare(VectorOperators.LE, mean);
+            DoubleVector lower = DoubleVector.broadcast(SPECIES, low).div(a.add(alpha));
+            DoubleVector upper = a.add(beta).div(high);
+            DoubleVector m = upper.blend(lower, below).mul(w);
+            m.intoArray(dynamic, d + k);
+            DoubleVector.fromArray(SPECIES, sums, k).add(m).intoArray(sums, k);
+        }
+        for (; k < n; k++) {
+            double a = v[base + k];
+            double deviation = (a <= mean) ? low / (alpha + a) : (beta + a) / high;
+            double m = w * deviation;
+            dynamic[d + k] = m;
+            sums[k] += m;
+        }
+    }
+
+    @Override
+    public void accumulate(double[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector share = DoubleVector.fromArray(SPECIES, dynamic, d + k)
+                    .div(DoubleVector.fromArray(SPECIES, sums, k));
+            DoubleVector.fromArray(SPECIES, out, o + k)
+                    .add(share.mul(DoubleVector.fromArray(SPECIES, v, base + k)))
+                    .intoArray(out, o + k);
+        }
+        for (; k < n; k++) {
+            out[o + k] += (dynamic[d + k] / sums[k]) * v[base + k];
+        }
+    }
+
+    // float版本：每次读入与SPECIES通道数相同的float（半宽寄存器），转为double后按double版本计算
+
+    private DoubleVector load(float[] v, int i) {
+        return (DoubleVector) FloatVector.fromArray(FLOAT_SPECIES, v, i).convertShape(VectorOperators.F2D, SPECIES, 0);
+    }
+
+    @Override
+    public void minMaxSum(float[] v, int from, int to, double[] stats) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        if (i < bound) {
+            DoubleVector lo = DoubleVector.broadcast(SPECIES, stats[0]);
+            DoubleVector hi = DoubleVector.broadcast(SPECIES, stats[1]);
+            DoubleVector s = DoubleVector.zero(SPECIES);
+            for (; i < bound; i += SPECIES.length()) {
+                DoubleVector x = load(v, i);
+                lo = lo.min(x);
+                hi = hi.max(x);
+                s = s.add(x);
+            }
+            stats[0] = lo.reduceLanes(VectorOperators.MIN);
+            stats[1] = hi.reduceLanes(VectorOperators.MAX);
+            stats[2] += s.reduceLanes(VectorOperators.ADD);
+        }
+        tail.minMaxSum(v, i, to, stats);
+    }
+
+    @Override
+    public double sum(float[] v, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            s = s.add(load(v, i));
+        }
+        return s.reduceLanes(VectorOperators.ADD) + tail.sum(v, i, to);
+    }
+
+    @Override
+    public double scale(float[] in, int base, float[] out, int target, int n, double lo, double hi, boolean positive) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        double range = hi - lo;
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector x = load(in, base + k);
+            DoubleVector y = positive ? x.sub(lo).div(range) : DoubleVector.broadcast(SPECIES, hi).sub(x).div(range);
+            FloatVector f = (FloatVector) y.convertShape(VectorOperators.D2F, FLOAT_SPECIES, 0);
+            f.intoArray(out, target + k);
+            s = s.add(f.convertShape(VectorOperators.F2D, SPECIES, 0));
+        }
+        return s.reduceLanes(VectorOperators.ADD)
+                + tail.scale(in, base + k, out, target + k, n - k, lo, hi, positive);
+    }
+
+    @Override
+    public void deviation(float[] v, int base, int n, double mean, double w, double alpha, double beta,
+                          double[] dynamic, int d, double[] sums) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        double low = alpha + mean;
+        double high = beta + mean;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector a = load(v, base + k);
+            VectorMask<Double> below = a.compare(VectorOperators.LE, mean);
+            DoubleVector lower = DoubleVector.broadcast(SPECIES, low).div(a.add(alpha));
+            DoubleVector upper = a.add(beta).div(high);
+            DoubleVector m = upper.blend(lower, below).mul(w);
+            m.intoArray(dynamic, d + k);
+            DoubleVector.fromArray(SPECIES, sums, k).add(m).intoArray(sums, k);
+        }
+        for (; k < n; k++) {
+            double a = v[base + k];
+            double deviation = (a <= mean) ? low / (alpha + a) : (beta + a) / high;
+            double m = w * deviation;
+            dynamic[d + k] = m;
+            sums[k] += m;
+        }
+    }
+
+    @Override
+    public void accumulate(float[] v, int base, double[] dynamic, int d, double[] sums, double[] out, int o, int n) {
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector share = DoubleVector.fromArray(SPECIES, dynamic, d + k)
+                    .div(DoubleVector.fromArray(SPECIES, sums, k));
+            DoubleVector.fromArray(SPECIES, out, o + k)
+                    .add(share.mul(load(v, base + k)))
+                    .intoArray(out, o + k);
+        }
+        for (; k < n; k++) {
+            out[o + k] += (dynamic[d + k] / sums[k]) * v[base + k];
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package evaluation;
+
+// 不可变的综合权重方案：各判断矩阵推导出的局部权重沿指标体系逐层相乘后，按数据列排列的权重向量
+//
+// 指标体系（见IndicatorHierarchy）编译为几个扁平数组：分组按先序编号，0为根；每个分组记录父分组和
+// 它在父分组判断矩阵中的位置，每个指标记录所属分组、位置和数据列。组合权重只需按先序扫描一遍，
+// 评分时直接使用按数据列排列好的权重，与层数和列顺序无关。
+//
+// 判断矩阵变化时用withJudgment派生新方案，只重新推导变化的那一组局部权重。
+// 判断矩阵中的NaN表示未填写的元素，按互补关系推断，见EvaluationEngine.rowSums
+public final class WeightPlan {
+    // 阶数不超过该值时沿用一致矩阵Q的推导，结果与原实现逐位相同；更大的判断矩阵直接由行和推导，
+    // 不分配n×n的Q
+    static final int DIRECT_THRESHOLD = 64;
+
+    // 分组k的父分组（根为-1）及其在父分组判断矩阵中的位置
+    private final int[] parent;
+    private final int[] slot;
+    // 第i个指标（先序）所属分组、在该分组判断矩阵中的位置、对应的数据列
+    private final int[] leafGroup;
+    private final int[] leafSlot;
+    private final int[] leafColumn;
+
+    private final double[][] localWeights;
+    private final double[] weights;
+
+    WeightPlan(int[] parent, int[] slot, int[] leafGroup, int[] leafSlot, int[] leafColumn, double[][] localWeights) {
+        this.parent = parent;
+        this.slot = slot;
+        this.leafGroup = leafGroup;
+        this.leafSlot = leafSlot;
+        this.leafColumn = leafColumn;
+        this.localWeights = localWeights;
+        weights = combine(localWeights, new double[leafColumn.length]);
+    }
+
+    // 按本方案的层次结构组合局部权重（localWeights[k]为分组k的排序向量），写入out
+    double[] combine(double[][] localWeights, double[] out) {
+        double[] path = new double[parent.length];
+        path[0] = 1.0;
+        for (int k = 1; k < parent.length; k++) {
+            path[k] = localWeights[parent[k]][slot[k]] * path[parent[k]];
+        }
+        for (int i = 0; i < leafColumn.length; i++) {
+            out[leafColumn[i]] = localWeights[leafGroup[i]][leafSlot[i]] * path[leafGroup[i]];
+        }
+        return out;
+    }
+
+    // 固定的两级指标体系：judgments[0]为R1，其余依次为R2..R8，指标按组依次对应数据列
+    public static WeightPlan of(double[][][] judgments) {
+        if (judgments.length < 2) {
+            throw new IllegalArgumentException("至少需要一级判断矩阵和一个二级判断矩阵");
+        }
+        if (judgments[0].length != judgments.length - 1) {
+            throw new IllegalArgumentException(
+                    "一级判断矩阵阶数(" + judgments[0].length + ")与二级判断矩阵个数(" + (judgments.length - 1) + ")不一致");
+        }
+        int groups = judgments.length;
+        int[] parent = new int[groups];
+        int[] slot = new int[groups];
+        parent[0] = -1;
+        int total = 0;
+        for (int k = 1; k < groups; k++) {
+            slot[k] = k - 1;
+            total += judgments[k].length;
+        }
+        int[] leafGroup = new int[total];
+        int[] leafSlot = new int[total];
+        int[] leafColumn = new int[total];
+        int i = 0;
+        for (int k = 1; k < groups; k++) {
+            for (int s = 0; s < judgments[k].length; s++, i++) {
+                leafGroup[i] = k;
+                leafSlot[i] = s;
+                leafColumn[i] = i;
+            }
+        }
+        return new WeightPlan(parent, slot, leafGroup, leafSlot, leafColumn, deriveAll(judgments));
+    }
+
+    // 已组合好的综合权重作为只有一个分组的方案（如分片评估时由协调进程传来的权重）
+    public static WeightPlan fixed(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("综合权重为空");
+        }
+        int[] leafGroup = new int[n];
+        int[] leafSlot = new int[n];
+        for (int i = 0; i < n; i++) {
+            leafSlot[i] = i;
+        }
+        return new WeightPlan(new int[] {-1}, new int[1], leafGroup, leafSlot, leafSlot.clone(),
+                new double[][] {weights.clone()});
+    }
+
+    static double[][] deriveAll(double[][][] judgments) {
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.WEIGHTS);
+        double[][] local = new double[judgments.length][];
+        for (int k = 0; k < judgments.length; k++) {
+            local[k] = deriveWeights(judgments[k]);
+        }
+        timer.stop();
+        return local;
+    }
+
+    // 替换第k个判断矩阵（分组先序编号，0为根判断矩阵R1），其余组的局部权重直接复用
+    public WeightPlan withJudgment(int k, double[][] judgment) {
+        if (judgment.length != localWeights[k].length) {
+            throw new IllegalArgumentException(
+                    "第" + (k + 1) + "个判断矩阵阶数应为" + localWeights[k].length + "，实际为" + judgment.length);
+        }
+        PipelineMetrics.Timer timer = PipelineMetrics.start(PipelineMetrics.Stage.WEIGHTS);
+        double[][] newLocalWeights = localWeights.clone();
+        newLocalWeights[k] = deriveWeights(judgment);
+        timer.stop();
+        return new WeightPlan(parent, slot, leafGroup, leafSlot, leafColumn, newLocalWeights);
+    }
+
+    static double[] deriveWeights(double[][] judgment) {
+        return deriveWeights(judgment, new double[judgment.length], null, new double[judgment.length]);
+    }
+
+    // 写入调用方提供的缓冲区：xi、w长度为n，Q为n×n（阶数超过DIRECT_THRESHOLD时不使用，可为null）
+    static double[] deriveWeights(double[][] judgment, double[] xi, double[][] Q, double[] w) {
+        int n = judgment.length;
+        if (n <= DIRECT_THRESHOLD) {
+            if (Q == null) Q = new double[n][n];
+            return EvaluationEngine.rankingVector(EvaluationEngine.toConsistentMatrix(judgment, xi, Q), w);
+        }
+        return EvaluationEngine.rankingVectorFromRowSums(EvaluationEngine.rowSums(judgment, xi), w);
+    }
+
+    // 综合权重个数，即数据矩阵应有的列数
+    public int size() {
+        return weights.length;
+    }
+
+    // 判断矩阵（分组）个数
+    public int groups() {
+        return parent.length;
+    }
+
+    public double getWeight(int j) {
+        return weights[j];
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    // 内部使用，调用方不得修改
+    double[] weightsArray() {
+        return weights;
+    }
+}
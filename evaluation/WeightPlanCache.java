@@ -0,0 +1,58 @@
+package evaluation;
+
+import java.util.Arrays;
+
+// 综合权重方案缓存：判断矩阵变化时按矩阵失效，下次取方案时只重新推导失效的那一组
+public class WeightPlanCache {
+    private final double[][][] judgments;
+    private final boolean[] dirty;
+    private final IndicatorHierarchy hierarchy;
+    private WeightPlan plan;
+
+    // judgments[0]为R1，其余依次为R2..R8
+    public WeightPlanCache(double[][][] judgments) {
+        this(null, judgments);
+    }
+
+    // 按指标体系缓存，判断矩阵下标为分组的先序编号
+    public WeightPlanCache(IndicatorHierarchy hierarchy) {
+        this(hierarchy, hierarchy.judgments());
+    }
+
+    private WeightPlanCache(IndicatorHierarchy hierarchy, double[][][] judgments) {
+        this.hierarchy = hierarchy;
+        this.judgments = new double[judgments.length][][];
+        this.dirty = new boolean[judgments.length];
+        for (int k = 0; k < judgments.length; k++) {
+            this.judgments[k] = copy(judgments[k]);
+        }
+    }
+
+    // 第k个判断矩阵（0为根判断矩阵R1）已修改，保存其快照并使对应的组失效
+    public synchronized void update(int k, double[][] judgment) {
+        judgments[k] = copy(judgment);
+        dirty[k] = true;
+    }
+
+    public synchronized WeightPlan plan() {
+        if (plan == null) {
+            plan = hierarchy != null ? hierarchy.withJudgments(judgments).compile() : WeightPlan.of(judgments);
+        } else {
+            for (int k = 0; k < dirty.length; k++) {
+                if (dirty[k]) {
+                    plan = plan.withJudgment(k, judgments[k]);
+                }
+            }
+        }
+        Arrays.fill(dirty, false);
+        return plan;
+    }
+
+    private static double[][] copy(double[][] matrix) {
+        double[][] result = new double[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            result[i] = matrix[i].clone();
+        }
+        return result;
+    }
+}